@@ -2,6 +2,7 @@ package com.example._Do.auth.controller;
 
 import com.example._Do.auth.dto.AuthenticationRequest;
 import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
 import com.example._Do.auth.service.AuthenticationService;
 import com.example._Do.user.dto.RegisterRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,7 +27,7 @@ public class AuthenticationController {
 
     @Operation(
             summary = "Logout and invalidate token",
-            description = "Logs out the current user by adding their JWT to the Redis blacklist. The token will be unusable until its original expiration time.",
+            description = "Logs out the current user by adding the ID of their JWT to the Redis blacklist. The token will be unusable until its original expiration time.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
@@ -40,6 +41,21 @@ public class AuthenticationController {
         throw new IllegalStateException("This method should be intercepted by Spring Security.");
     }
 
+    @Operation(
+            summary = "Logout from all devices",
+            description = "Revokes every token issued to the current user, including the one used for this request.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "All sessions revoked."),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing Bearer token.")
+    })
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll() {
+        authenticationService.logoutEverywhere();
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     @Operation(
             summary="Register a new user",
@@ -57,4 +73,17 @@ public class AuthenticationController {
     public ResponseEntity<AuthenticationResponse> authenticate(@Valid @RequestBody AuthenticationRequest request) {
         return ResponseEntity.ok(authenticationService.authenticate(request));
     }
+
+    @PostMapping("/refresh")
+    @Operation(
+            summary="Refresh tokens",
+            description="Exchanges a refresh token for a new JWT and a new refresh token. Each refresh token can be used once."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "New tokens issued."),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Refresh token is invalid, expired, revoked or was already used.")
+    })
+    public ResponseEntity<AuthenticationResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request));
+    }
 }
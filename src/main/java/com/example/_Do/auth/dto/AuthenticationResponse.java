@@ -4,16 +4,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
 /**
- * Immutable response object containing the generated JWT.
+ * Immutable response object containing the generated JWT and refresh token.
  */
 @Builder
-@Schema(description="Response object containing the JWT access token.")
+@Schema(description="Response object containing the JWT access token and the refresh token.")
 public record AuthenticationResponse (
     @Schema(
             description="JWT Access Token used for authorizing subsequent requests.",
             example="eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ..."
     )
-    String token
+    String token,
+
+    @Schema(
+            description="Single-use token for /api/v1/auth/refresh. Absent when refresh tokens are disabled.",
+            example="q1v2X9b0cZ3nR7tK..."
+    )
+    String refreshToken
 ) {
 
-}
\ No newline at end of file
+}
@@ -1,7 +1,13 @@
 package com.example._Do.auth;
 
+import com.example._Do.auth.interceptor.RateLimitingInterceptor;
+import com.example._Do.auth.principal.AuthenticatedUser;
 import com.example._Do.auth.service.JwtBlacklistService;
 import com.example._Do.auth.service.JwtService;
+import com.example._Do.auth.service.RevocationCheck;
+import com.example._Do.auth.service.SecurityStampService;
+import com.example._Do.user.entity.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,8 +16,10 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -20,6 +28,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
 
 public class filter {
     /**
@@ -28,6 +38,9 @@ public class filter {
      * 1. The request contains a valid 'Bearer' token.
      * 2. The token signature and expiration are verified.
      * 3. The token is not present in the Redis-backed blacklist (revoked tokens).
+     * 4. The security stamp claim is still current (role change, forced logout).
+     * Tokens carrying identity claims are authenticated from the claims alone; the user row is only
+     * read to refresh a stale stamp. Tokens without them fall back to loading the user.
      */
     @Component
     @RequiredArgsConstructor
@@ -38,8 +51,13 @@ public class filter {
 
         private final JwtService jwtService;
         private final UserDetailsService userDetailsService;
+        private final SecurityStampService securityStampService;
         @Autowired(required = false)
         private JwtBlacklistService jwtBlacklistService;
+        @Autowired(required = false)
+        private RateLimitingInterceptor rateLimitingInterceptor;
+        @Value("${application.security.jwt.stateless:true}")
+        private boolean stateless;
 
         /**
          * Core filtering logic that processes the Authorization header and orchestrates the authentication flow.
@@ -63,13 +81,13 @@ public class filter {
             // Extract the token (remove Bearer-Prefix)
             final String jwt = authHeader.substring(BEARER_PREFIX.length());
 
-            // Extract username (email) from token
+            // Parse once: verifies signature and expiration
             // Note: This might throw an exception if token is malformed, handled by Spring Security EntryPoint
-            final String userEmail = jwtService.extractUsername(jwt);
+            final Claims claims = jwtService.parseToken(jwt);
 
             // Validate token and set authentication
-            if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                authenticateUserIfValid(request, jwt, userEmail);
+            if(claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                authenticateUserIfValid(request, jwt, claims);
             }
 
             filterChain.doFilter(request, response);
@@ -77,19 +95,34 @@ public class filter {
 
         /**
          * Creates a standardized Authentication token with the user's authorities and request details.
+         * The principal is an {@link AuthenticatedUser}, so services can identify the user without querying it again.
          */
-        private UsernamePasswordAuthenticationToken createAuthenticationToken(HttpServletRequest request, UserDetails userDetails) {
+        private UsernamePasswordAuthenticationToken createAuthenticationToken(
+                HttpServletRequest request, Object principal, Collection<? extends GrantedAuthority> authorities) {
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+                    principal, null, authorities);
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             return authenticationToken;
         }
 
         /**
          * Verifies if the token has been revoked (e.g., after a logout) by checking the blacklist.
+         * When the local filter cannot rule it out and the request is rate limited in Redis, the lookup is left
+         * to the {@link RateLimitingInterceptor}, which makes it in the same round-trip as the rate limit.
          */
-        private boolean isBlacklisted(String jwt){
-            if (jwtBlacklistService != null && jwtBlacklistService.isTokenBlacklisted(jwt)) {
+        private boolean isBlacklisted(HttpServletRequest request, Claims claims, String jwt){
+            if (jwtBlacklistService == null) {
+                return false;
+            }
+            Optional<RevocationCheck> check = jwtBlacklistService.revocationCheck(claims, jwt);
+            if (check.isEmpty()) {
+                return false;
+            }
+            if (rateLimitingInterceptor != null && rateLimitingInterceptor.checksRevocation(request)) {
+                request.setAttribute(RevocationCheck.REQUEST_ATTRIBUTE, check.get());
+                return false;
+            }
+            if (jwtBlacklistService.isRevoked(check.get())) {
                 log.warn("Access denied: Token is blacklisted.");
                 return true;
             }
@@ -98,18 +131,42 @@ public class filter {
 
         /**
          * Orchestrates the validation of the token and updates the SecurityContext.
-         * Combines JWT claim validation with a stateful check against the blacklist.
+         * Combines JWT claim validation with a stateful check against the blacklist and the security stamp.
          */
-        private void authenticateUserIfValid(HttpServletRequest request, String jwt, String userEmail) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        private void authenticateUserIfValid(HttpServletRequest request, String jwt, Claims claims) {
+            final String userEmail = claims.getSubject();
+            if (isBlacklisted(request, claims, jwt)) {
+                return;
+            }
 
-            if (jwtService.isTokenValid(jwt, userDetails) && !isBlacklisted(jwt)){
-                UsernamePasswordAuthenticationToken authenticationToken = createAuthenticationToken(request, userDetails);
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                log.debug("User authenticated via JWT: {}", userEmail);
-            } else {
-                log.warn("Invalid JWT token for user: {}", userEmail);
+            Optional<AuthenticatedUser> fromClaims = stateless ? jwtService.extractPrincipal(claims) : Optional.empty();
+            if (fromClaims.isPresent()) {
+                AuthenticatedUser principal = fromClaims.get();
+                String stamp = claims.get(JwtService.CLAIM_SECURITY_STAMP, String.class);
+                if (!securityStampService.isCurrent(principal.id(), stamp, claims.getIssuedAt().toInstant())) {
+                    log.warn("Invalid JWT token for user: {} (stale security stamp)", userEmail);
+                    return;
+                }
+                setAuthentication(request, principal, principal.authorities());
+                return;
             }
+
+            // Token without identity claims (or stateless mode disabled): load the user
+            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            String stamp = claims.get(JwtService.CLAIM_SECURITY_STAMP, String.class);
+            if (userDetails instanceof User user && stamp != null && !stamp.equals(user.getSecurityStamp())) {
+                log.warn("Invalid JWT token for user: {} (stale security stamp)", userEmail);
+                return;
+            }
+            Object principal = userDetails instanceof User user ? AuthenticatedUser.from(user) : userDetails;
+            setAuthentication(request, principal, userDetails.getAuthorities());
+        }
+
+        private void setAuthentication(
+                HttpServletRequest request, Object principal, Collection<? extends GrantedAuthority> authorities) {
+            UsernamePasswordAuthenticationToken authenticationToken = createAuthenticationToken(request, principal, authorities);
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            log.debug("User authenticated via JWT: {}", authenticationToken.getName());
         }
 
         /**
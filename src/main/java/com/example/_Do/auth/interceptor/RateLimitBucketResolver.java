@@ -0,0 +1,270 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.auth.service.JwtBlacklistService;
+import com.example._Do.auth.service.RedisCircuitBreaker;
+import com.example._Do.auth.service.RevocationCheck;
+import com.example._Do.config.RateLimitProperties;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumes rate limit tokens from the bucket of a client.
+ * <p>
+ * In {@code redis} mode every consumption is a round-trip to the bucket in Redis, made by the {@link RedisGatekeeper},
+ * which also checks the revocation of the token when the authentication filter could not rule it out locally.
+ * In {@code hybrid} mode each node keeps a local, optimized proxy per bucket: requests consume from its local
+ * state, and usage is reconciled with Redis in batches, mostly by {@link #flush()} on a sync thread of its own, so
+ * that slow syncs neither hold up nor are held up by the other scheduled jobs.
+ * A request only waits for Redis when its node has admitted {@code max-unsynchronized-tokens} requests, or its view
+ * is older than {@code max-unsynchronized-timeout}, since the last synchronization. That also bounds how far the
+ * global limit can be exceeded.
+ * </p>
+ * <p>
+ * Redis calls go through the {@link RedisCircuitBreaker}. While it is open, each node enforces the limits with
+ * purely local buckets; when Redis recovers, the tokens consumed from them are charged to the Redis buckets.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitBucketResolver implements DisposableBean {
+
+    private final ProxyManager<byte[]> proxyManager;
+    private final RedisGatekeeper gatekeeper;
+    private final JwtBlacklistService blacklistService;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RateLimitProperties.Hybrid hybrid;
+    private final boolean hybridMode;
+    private final Optimization optimization;
+    private final Map<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
+    private final Map<String, FallbackBucket> fallbackBuckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final ScheduledExecutorService syncExecutor;
+
+    public RateLimitBucketResolver(
+            ProxyManager<byte[]> proxyManager,
+            RedisGatekeeper gatekeeper,
+            JwtBlacklistService blacklistService,
+            RedisCircuitBreaker circuitBreaker,
+            RateLimitProperties properties
+    ) {
+        this.proxyManager = proxyManager;
+        this.gatekeeper = gatekeeper;
+        this.blacklistService = blacklistService;
+        this.circuitBreaker = circuitBreaker;
+        this.hybrid = properties.getHybrid();
+        this.hybridMode = properties.getMode() == RateLimitProperties.Mode.HYBRID;
+        this.optimization = Optimizations.delaying(new DelayParameters(
+                hybrid.getMaxUnsynchronizedTokens(),
+                hybrid.getMaxUnsynchronizedTimeout()
+        ));
+        circuitBreaker.onRecovery(this::reconcile);
+
+        if (hybridMode) {
+            long interval = hybrid.getSyncInterval().toMillis();
+            this.syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limit-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncExecutor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncExecutor = null;
+        }
+    }
+
+    /**
+     * Whether {@link #admit} checks revocations in the same round-trip as the consumption. Only in {@code redis}
+     * mode: in {@code hybrid} mode most consumptions make no Redis call to piggyback on.
+     */
+    public boolean checksRevocation() {
+        return !hybridMode;
+    }
+
+    /**
+     * Checks the revocation of the token, if needed, then tries to consume one token.
+     *
+     * @param key           The bucket key in Redis.
+     * @param configuration The limits of the bucket, used when it does not exist yet.
+     * @param revocation    The blacklist lookup left by the authentication filter, or {@code null}.
+     * @return Whether the token is revoked, and otherwise the result of the consumption,
+     * with the remaining tokens and wait times.
+     */
+    public RedisGatekeeper.Admission admit(String key, BucketConfiguration configuration, RevocationCheck revocation) {
+        if (hybridMode) {
+            if (revocation != null && blacklistService.isRevoked(revocation)) {
+                return new RedisGatekeeper.Admission(true, null);
+            }
+            return new RedisGatekeeper.Admission(false, circuitBreaker.execute(
+                    () -> resolve(key, configuration).tryConsumeAndReturnRemaining(1),
+                    () -> consumeLocally(key, configuration)
+            ));
+        }
+        return circuitBreaker.execute(
+                () -> gatekeeper.admit(key, configuration, revocation),
+                () -> revocation != null && blacklistService.isRevokedLocally(revocation.tokenId())
+                        ? new RedisGatekeeper.Admission(true, null)
+                        : new RedisGatekeeper.Admission(false, consumeLocally(key, configuration))
+        );
+    }
+
+    private Bucket resolve(String key, BucketConfiguration configuration) {
+        LocalBucket local = localBuckets.get(key);
+        if (local == null) {
+            evictIfFull();
+            local = localBuckets.computeIfAbsent(key, k -> new LocalBucket(
+                    proxyManager.builder().withOptimization(optimization).build(bytes(k), () -> configuration)));
+        }
+        local.lastUsedNanos = System.nanoTime();
+        return local.proxy;
+    }
+
+    /**
+     * Pushes tokens consumed locally since the last synchronization to Redis, and drops idle local buckets.
+     * Runs every {@code sync-interval} on the sync thread.
+     */
+    public void flush() {
+        if (localBuckets.isEmpty() || !circuitBreaker.isClosed()) {
+            return;
+        }
+        long idleBefore = System.nanoTime() - hybrid.getIdleTimeout().toNanos();
+        localBuckets.forEach((key, local) -> {
+            try {
+                // Syncs only buckets with at least one locally consumed token; idle ones cost no round-trip
+                local.proxy.getOptimizationController().syncByCondition(1, Duration.ZERO);
+            } catch (RuntimeException e) {
+                log.warn("Rate limit sync failed for bucket {}: {}", key, e.getMessage());
+                return;
+            }
+            if (local.lastUsedNanos - idleBefore < 0) {
+                localBuckets.remove(key, local);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.warn("Rate limit sync failed: {}", e.getMessage());
+        }
+    }
+
+    private ConsumptionProbe consumeLocally(String key, BucketConfiguration configuration) {
+        FallbackBucket fallback = fallbackBuckets.get(key);
+        if (fallback == null) {
+            if (fallbackBuckets.size() >= hybrid.getMaxLocalBuckets()) {
+                fallbackBuckets.clear();
+            }
+            fallback = fallbackBuckets.computeIfAbsent(key, k -> new FallbackBucket(localBucket(configuration), configuration));
+        }
+        ConsumptionProbe probe = fallback.bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            fallback.consumed.incrementAndGet();
+        }
+        return probe;
+    }
+
+    /**
+     * Charges the tokens consumed from local fallback buckets during an outage to the Redis buckets.
+     */
+    void reconcile() {
+        fallbackBuckets.forEach((key, fallback) -> {
+            long consumed = fallback.consumed.getAndSet(0);
+            if (consumed > 0 && hybridMode) {
+                proxyManager.builder().build(bytes(key), () -> fallback.configuration).tryConsumeAsMuchAsPossible(consumed);
+            } else if (consumed > 0) {
+                gatekeeper.consumeAsMuchAsPossible(key, fallback.configuration, consumed);
+            }
+            fallbackBuckets.remove(key, fallback);
+        });
+        log.info("Rate limit buckets reconciled with Redis");
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Bucket localBucket(BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Makes room for a new local bucket: drops the idle ones, then the least recently used ones, down to 90% of
+     * {@code max-local-buckets}. Unsynchronized tokens of dropped buckets are lost, at most
+     * {@code max-unsynchronized-tokens} each; the least recently used ones have usually been synced by {@link #flush()}.
+     */
+    private void evictIfFull() {
+        if (localBuckets.size() < hybrid.getMaxLocalBuckets() || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = localBuckets.size();
+            long idleBefore = System.nanoTime() - hybrid.getIdleTimeout().toNanos();
+            localBuckets.values().removeIf(local -> local.lastUsedNanos - idleBefore < 0);
+
+            int excess = localBuckets.size() - hybrid.getMaxLocalBuckets() * 9 / 10;
+            if (excess > 0) {
+                // Sort on a copy of the last-use times, which keep changing while requests come in
+                localBuckets.entrySet().stream()
+                        .map(entry -> Map.entry(entry.getKey(), entry.getValue().lastUsedNanos))
+                        .sorted(Map.Entry.comparingByValue())
+                        .limit(excess)
+                        .forEach(entry -> localBuckets.remove(entry.getKey()));
+            }
+            log.warn("More than {} local rate limit buckets, dropped the {} least recently used",
+                    hybrid.getMaxLocalBuckets(), before - localBuckets.size());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record FallbackBucket(Bucket bucket, BucketConfiguration configuration, AtomicLong consumed) {
+        private FallbackBucket(Bucket bucket, BucketConfiguration configuration) {
+            this(bucket, configuration, new AtomicLong());
+        }
+    }
+
+    private static final class LocalBucket {
+        private final BucketProxy proxy;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private LocalBucket(BucketProxy proxy) {
+            this.proxy = proxy;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.config.RateLimitProperties;
+import io.github.bucket4j.BucketConfiguration;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A rate limit policy compiled from {@link RateLimitProperties.Policy} at startup.
+ *
+ * @param name          Policy name, part of the bucket key.
+ * @param patterns      Parsed path patterns.
+ * @param methods       Upper-case HTTP methods; empty means all.
+ * @param keyType       What requests are counted by.
+ * @param configuration Bucket configuration shared by every bucket of the policy.
+ * @param limit         Capacity of the tightest limit, reported in {@code X-RateLimit-Limit}.
+ */
+public record RateLimitPolicy(
+        String name,
+        List<PathPattern> patterns,
+        Set<String> methods,
+        RateLimitProperties.KeyType keyType,
+        BucketConfiguration configuration,
+        long limit
+) {
+
+    /**
+     * @throws IllegalStateException if the policy has no name, pattern or limit.
+     */
+    public static RateLimitPolicy compile(RateLimitProperties.Policy policy) {
+        if (policy.getName() == null || policy.getPatterns().isEmpty() || policy.getLimits().isEmpty()) {
+            throw new IllegalStateException("Rate limit policy needs a name, at least one pattern and one limit: " + policy.getName());
+        }
+
+        var builder = BucketConfiguration.builder();
+        for (RateLimitProperties.Limit limit : policy.getLimits()) {
+            builder.addLimit(bandwidth -> bandwidth.capacity(limit.getCapacity())
+                    .refillGreedy(limit.getCapacity(), limit.getPeriod()));
+        }
+
+        return new RateLimitPolicy(
+                policy.getName(),
+                policy.getPatterns().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                policy.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet()),
+                policy.getKey(),
+                builder.build(),
+                policy.getLimits().stream().mapToLong(RateLimitProperties.Limit::getCapacity).min().orElseThrow()
+        );
+    }
+
+    public boolean matches(String method, PathContainer path) {
+        if (!methods.isEmpty() && !methods.contains(method)) {
+            return false;
+        }
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
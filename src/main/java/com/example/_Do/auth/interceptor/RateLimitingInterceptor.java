@@ -1,35 +1,73 @@
 package com.example._Do.auth.interceptor;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.auth.service.RevocationCheck;
+import com.example._Do.config.RateLimitProperties;
 import com.example._Do.exception.RateLimitExceededException;
-import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.distributed.BucketProxy;
+import com.example._Do.exception.TokenRevokedException;
+import com.example._Do.user.entity.User;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Interceptor for Distributed Rate Limiting.
  * <p>
- * This interceptor monitors incoming HTTP requests and enforces rate limits
- * based on the client's IP address. It leverages a distributed Redis store
- * via {@link ProxyManager} to ensure consistency across multiple application instances.
+ * This interceptor enforces the policies configured under {@code application.rate-limit.policies}.
+ * Each policy maps route patterns to a key (client IP, authenticated user or user within a group) and a set of limits;
+ * a request consumes one token from the bucket of every policy it matches. Buckets live in a distributed Redis
+ * store via {@link ProxyManager} to ensure consistency across multiple application instances;
+ * see {@link RateLimitBucketResolver} for how buckets are synchronized.
+ * </p>
+ * <p>
+ * The policy with the fewest remaining tokens is reported in the {@code X-RateLimit-*} response headers.
+ * </p>
+ * <p>
+ * In {@code redis} mode, a blacklist lookup the authentication filter could not settle locally is made here,
+ * in the same Redis round-trip as the first consumption; a revoked token is rejected with 401.
  * </p>
  */
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
 public class RateLimitingInterceptor implements HandlerInterceptor {
 
-    private final ProxyManager<String> proxyManager;
+    private static final String HEADER_LIMIT = "X-RateLimit-Limit";
+    private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RESET = "X-RateLimit-Reset";
+    private static final String HEADER_POLICY = "X-RateLimit-Policy";
+    private static final String KEY_PREFIX = "rate_limit:";
+    private static final String GROUP_ID = "groupId";
+    /** Paths the interceptor is registered for, see {@link com.example._Do.config.WebMvcConfig}. */
+    public static final String INTERCEPTED_PATH_PATTERN = "/api/**";
+    private static final PathPattern INTERCEPTED_PATHS = PathPatternParser.defaultInstance.parse(INTERCEPTED_PATH_PATTERN);
+
+    private final RateLimitBucketResolver bucketResolver;
+    private final List<RateLimitPolicy> policies;
+
+    public RateLimitingInterceptor(RateLimitBucketResolver bucketResolver, RateLimitProperties properties) {
+        this.bucketResolver = bucketResolver;
+        // Bucket configurations are compiled once; requests only match patterns and consume
+        this.policies = properties.getPolicies().stream().map(RateLimitPolicy::compile).toList();
+        log.info("Loaded {} rate limit policies: {}", policies.size(), policies.stream().map(RateLimitPolicy::name).toList());
+    }
 
     /**
      * Intercepts requests before they reach the controller to verify rate limit quotas.
@@ -37,40 +75,141 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
      * @param request  The incoming HttpServletRequest
      * @param response The outgoing HttpServletResponse
      * @param handler  The target handler (controller method)
-     * @return {@code true} if the request is within limits; {@code false} otherwise.
+     * @return {@code true} if the request is within limits; otherwise a {@link RateLimitExceededException} is thrown.
      */
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
 
-        // Resolve the real client IP address.
-        // In cloud environments (Azure, AWS), the request often passes through a Load Balancer or Gateway.
-        // 'X-Forwarded-For' ensures we track the actual user, not the proxy's internal IP.
-        String remoteAddr = request.getHeader("X-Forwarded-For");
-        if (remoteAddr == null ||remoteAddr.isEmpty()) {
-            remoteAddr = request.getRemoteAddr();
+        // Revocation lookup deferred by the authentication filter; made together with the first consumption
+        RevocationCheck revocation = (RevocationCheck) request.getAttribute(RevocationCheck.REQUEST_ATTRIBUTE);
+        request.removeAttribute(RevocationCheck.REQUEST_ATTRIBUTE);
+
+        RateLimitPolicy reportedPolicy = null;
+        ConsumptionProbe reportedProbe = null;
+        for (RateLimitPolicy policy : policies) {
+            if (!policy.matches(request.getMethod(), path)) {
+                continue;
+            }
+
+            String key = KEY_PREFIX + policy.name() + ":" + resolveKey(policy.keyType(), request);
+            RedisGatekeeper.Admission admission = bucketResolver.admit(key, policy.configuration(), revocation);
+            if (admission.revoked()) {
+                SecurityContextHolder.clearContext();
+                log.warn("Access denied: Token is blacklisted.");
+                throw new TokenRevokedException("Token has been revoked");
+            }
+            revocation = null;
+            ConsumptionProbe probe = admission.probe();
+
+            if (!probe.isConsumed()) {
+                long waitSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
+                writeHeaders(response, policy, probe);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(waitSeconds));
+                log.warn("Rate limit '{}' exceeded for {}", policy.name(), key);
+                throw new RateLimitExceededException("Too many requests. Please try again after " + waitSeconds + " seconds.");
+            }
+            if (reportedProbe == null || probe.getRemainingTokens() < reportedProbe.getRemainingTokens()) {
+                reportedPolicy = policy;
+                reportedProbe = probe;
+            }
         }
 
-        // Define the Rate Limiting Strategy:
-        // Capacity: 10 tokens per bucket.
-        // Refill: Greedy refill of 10 tokens every 1 minute.
-        BucketConfiguration config = BucketConfiguration.builder()
-                .addLimit(limit -> limit.capacity(10).refillGreedy(10 , Duration.ofMinutes(1)))
-                .build();
-
-        // Retrieve or initialize the bucket from Redis for the resolved IP.
-        // Using a Supplier (() -> config) is highly efficient as it avoids redundant
-        // configuration object processing if the bucket already exists in the cache.
-        BucketProxy bucket = proxyManager.builder().build(remoteAddr, () -> config);
-
-        // Attempt to consume a single token for the current request.
-        if (bucket.tryConsume(1)){
-            return true; // Limit not exceeded, allow request to proceed.
-        } else {
-            log.warn("Rate limit exceeded for client identifier: {}", remoteAddr);
-
-            throw new RateLimitExceededException("Too many requests. Please try again after 1 minute.");
+        if (reportedProbe != null) {
+            writeHeaders(response, reportedPolicy, reportedProbe);
         }
+        return true;
+    }
 
+    /**
+     * Whether {@link #preHandle} will check the revocation of the token of this request, in the same Redis
+     * round-trip as its first rate limit consumption. The authentication filter then leaves the lookup to it.
+     *
+     * @param request The incoming HttpServletRequest
+     * @return {@code true} if the request is intercepted and matches at least one policy that checks revocations.
+     */
+    public boolean checksRevocation(HttpServletRequest request) {
+        if (!bucketResolver.checksRevocation()) {
+            return false;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        if (!INTERCEPTED_PATHS.matches(path)) {
+            return false;
+        }
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(request.getMethod(), path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    private String resolveKey(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        if (keyType != RateLimitProperties.KeyType.IP) {
+            Long userId = resolveUserId();
+            if (userId != null) {
+                // Membership is only checked by the controller, so a group bucket is never shared between users:
+                // otherwise anyone could drain the quota of a group they do not belong to
+                Long groupId = keyType == RateLimitProperties.KeyType.GROUP ? resolveGroupId(request) : null;
+                return groupId != null ? "group:" + groupId + ":user:" + userId : "user:" + userId;
+            }
+        }
+        return "ip:" + resolveClientIp(request);
+    }
+
+    /**
+     * Reads the {@code groupId} path variable or request parameter.
+     *
+     * @return The group ID, or {@code null} if absent or not a number; such requests are rejected by the
+     * controller and must not create a bucket per distinct value.
+     */
+    private static Long resolveGroupId(HttpServletRequest request) {
+        Object pathVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Object groupId = pathVariables instanceof Map<?, ?> variables && variables.get(GROUP_ID) != null
+                ? variables.get(GROUP_ID)
+                : request.getParameter(GROUP_ID);
+        if (groupId == null) {
+            return null;
+        }
+        try {
+            long id = Long.parseLong(groupId.toString().trim());
+            return id > 0 ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the user ID from the principal set by the JWT filter, without a database lookup.
+     */
+    private static Long resolveUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.id();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static String resolveClientIp(HttpServletRequest request) {
+        // In cloud environments (Azure, AWS), the request often passes through a Load Balancer or Gateway.
+        // The servlet container resolves 'X-Forwarded-For' (server.forward-headers-strategy): it walks the header
+        // from the right and stops at the first address that is not a trusted proxy. The left-most entries are
+        // written by the client and must never be used as the key, or every request could claim a fresh IP.
+        return request.getRemoteAddr();
+    }
+
+    private static void writeHeaders(HttpServletResponse response, RateLimitPolicy policy, ConsumptionProbe probe) {
+        response.setHeader(HEADER_POLICY, policy.name());
+        response.setHeader(HEADER_LIMIT, String.valueOf(policy.limit()));
+        response.setHeader(HEADER_REMAINING, String.valueOf(probe.getRemainingTokens()));
+        response.setHeader(HEADER_RESET, String.valueOf(
+                (long) Math.ceil(probe.getNanosToWaitForReset() / (double) TimeUnit.SECONDS.toNanos(1))));
+    }
 }
@@ -0,0 +1,136 @@
+package com.example._Do.auth.interceptor;
+
+import com.example._Do.auth.service.RevocationCheck;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks whether a token is revoked and consumes from a rate limit bucket in a single Redis round-trip.
+ * <p>
+ * Used in {@code redis} mode. The bucket is a token bucket kept in a Redis hash: one token count per limit and
+ * the time of the last refill, taken from the Redis clock so that every node refills identically. Tokens refill
+ * continuously, like the greedy refill of the Bucket4j buckets used in {@code hybrid} mode. The hash expires once
+ * every limit would be full again, since a full bucket and a missing one are the same.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisGatekeeper {
+
+    private static final String BUCKET_PREFIX = "gatekeeper:";
+
+    /*
+     * KEYS[1]: bucket hash; KEYS[2..]: revocation keys of the token, if any.
+     * ARGV[1]: tokens to consume; ARGV[2]: 1 to consume only if every limit allows it, 0 to consume as many as possible.
+     * ARGV[3..]: capacity, refill tokens and refill period in milliseconds of each limit.
+     * Returns {revoked, consumed, remaining, ms until one token is available, ms until every limit is full}.
+     */
+    private static final RedisScript<List> ADMIT = RedisScript.of("""
+            if #KEYS > 1 and redis.call('EXISTS', unpack(KEYS, 2)) > 0 then
+              return {1, 0, 0, 0, 0}
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local requested = tonumber(ARGV[1])
+            local limits = (#ARGV - 2) / 3
+            local fields = {'ts'}
+            for i = 1, limits do fields[i + 1] = 't' .. i end
+            local state = redis.call('HMGET', KEYS[1], unpack(fields))
+            local elapsed = math.max(0, now - (tonumber(state[1]) or now))
+            local capacity, rate, tokens = {}, {}, {}
+            local available = requested
+            for i = 1, limits do
+              capacity[i] = tonumber(ARGV[3 * i])
+              rate[i] = tonumber(ARGV[3 * i + 1]) / tonumber(ARGV[3 * i + 2])
+              tokens[i] = math.min(capacity[i], (tonumber(state[i + 1]) or capacity[i]) + elapsed * rate[i])
+              available = math.min(available, math.floor(tokens[i]))
+            end
+            local consumed = requested
+            if available < requested then
+              consumed = ARGV[2] == '1' and 0 or math.max(available, 0)
+            end
+            local update = {'ts', now}
+            local remaining, untilToken, untilFull = math.huge, 0, 0
+            for i = 1, limits do
+              tokens[i] = tokens[i] - consumed
+              update[#update + 1] = 't' .. i
+              update[#update + 1] = tostring(tokens[i])
+              remaining = math.min(remaining, math.floor(tokens[i]))
+              if tokens[i] < 1 then untilToken = math.max(untilToken, math.ceil((1 - tokens[i]) / rate[i])) end
+              untilFull = math.max(untilFull, math.ceil((capacity[i] - tokens[i]) / rate[i]))
+            end
+            redis.call('HSET', KEYS[1], unpack(update))
+            redis.call('PEXPIRE', KEYS[1], math.max(untilFull, 1))
+            return {0, consumed, remaining, untilToken, untilFull}
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisGatekeeper(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Result of {@link #admit}.
+     *
+     * @param revoked Whether the token is revoked; if so, nothing was consumed.
+     * @param probe   The result of the consumption, or {@code null} if the token is revoked.
+     */
+    public record Admission(boolean revoked, ConsumptionProbe probe) {
+    }
+
+    /**
+     * Checks the token against the blacklist, then tries to consume one token from the bucket.
+     *
+     * @param key           The bucket key.
+     * @param configuration The limits of the bucket.
+     * @param revocation    The revocation keys to check, or {@code null} if the token is known not to be revoked.
+     * @return Whether the token is revoked, and otherwise the result of the consumption.
+     */
+    public Admission admit(String key, BucketConfiguration configuration, RevocationCheck revocation) {
+        List<String> keys = new ArrayList<>();
+        keys.add(BUCKET_PREFIX + key);
+        if (revocation != null) {
+            keys.addAll(revocation.keys());
+        }
+        List<Long> result = run(keys, configuration, 1, true);
+        if (result.get(0) == 1) {
+            return new Admission(true, null);
+        }
+        long remaining = result.get(2);
+        long nanosToReset = TimeUnit.MILLISECONDS.toNanos(result.get(4));
+        ConsumptionProbe probe = result.get(1) > 0
+                ? ConsumptionProbe.consumed(remaining, nanosToReset)
+                : ConsumptionProbe.rejected(remaining, TimeUnit.MILLISECONDS.toNanos(result.get(3)), nanosToReset);
+        return new Admission(false, probe);
+    }
+
+    /**
+     * Consumes up to {@code tokens} from the bucket, e.g. to charge requests admitted locally during an outage.
+     */
+    public void consumeAsMuchAsPossible(String key, BucketConfiguration configuration, long tokens) {
+        run(List.of(BUCKET_PREFIX + key), configuration, tokens, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> run(List<String> keys, BucketConfiguration configuration, long tokens, boolean strict) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(tokens));
+        args.add(strict ? "1" : "0");
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            args.add(String.valueOf(bandwidth.getCapacity()));
+            args.add(String.valueOf(bandwidth.getRefillTokens()));
+            args.add(String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toMillis(bandwidth.getRefillPeriodNanos()))));
+        }
+        return stringRedisTemplate.execute(ADMIT, keys, args.toArray());
+    }
+}
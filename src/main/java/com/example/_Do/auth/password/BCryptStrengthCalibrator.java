@@ -0,0 +1,47 @@
+package com.example._Do.auth.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt work factor for the current hardware.
+ * <p>
+ * One hash is timed at the minimum strength; each additional round doubles the cost, so the strength
+ * is the highest one whose estimated time stays within the target. The result is clamped to the configured
+ * bounds and never goes below the minimum, so existing hashes are never considered stronger than new ones.
+ * </p>
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param targetHashTime Desired time per hash; zero skips the measurement and returns the minimum.
+     * @param minStrength    Lowest acceptable strength (log2 rounds).
+     * @param maxStrength    Highest acceptable strength (log2 rounds).
+     * @return The calibrated strength.
+     */
+    public static int calibrate(Duration targetHashTime, int minStrength, int maxStrength) {
+        if (targetHashTime.isZero() || targetHashTime.isNegative() || minStrength >= maxStrength) {
+            return minStrength;
+        }
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(SAMPLE_PASSWORD); // Warm-up, the first run includes class loading and JIT
+        long start = System.nanoTime();
+        probe.encode(SAMPLE_PASSWORD);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        int extraRounds = (int) Math.floor(Math.log((double) targetHashTime.toNanos() / elapsed) / Math.log(2));
+        int strength = Math.max(minStrength, Math.min(maxStrength, minStrength + extraRounds));
+        log.info("BCrypt strength calibrated to {} (strength {} took {} ms, target {} ms)",
+                strength, minStrength, elapsed / 1_000_000, targetHashTime.toMillis());
+        return strength;
+    }
+}
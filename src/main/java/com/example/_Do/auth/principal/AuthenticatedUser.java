@@ -0,0 +1,45 @@
+package com.example._Do.auth.principal;
+
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Immutable principal stored in the security context for an authenticated request.
+ * <p>
+ * Carries the identity data services need (ID, email, role and display name), so the current
+ * user can be resolved without another database lookup. {@link #getName()} returns the email,
+ * keeping {@code Authentication#getName()} unchanged for existing callers.
+ * </p>
+ */
+public record AuthenticatedUser(
+        Long id,
+        String email,
+        Role role,
+        String firstName,
+        String lastName
+) implements AuthenticatedPrincipal {
+
+    /**
+     * Creates the principal from a loaded user entity.
+     */
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getFirstName(), user.getLastName());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public String displayName() {
+        return firstName + " " + lastName;
+    }
+
+    public Collection<? extends GrantedAuthority> authorities() {
+        return role.getAuthorities();
+    }
+}
@@ -2,6 +2,8 @@ package com.example._Do.auth.service;
 
 import com.example._Do.auth.dto.AuthenticationRequest;
 import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
+import com.example._Do.exception.PasswordHashingUnavailableException;
 import com.example._Do.user.dto.RegisterRequest;
 import com.example._Do.user.entity.Role;
 import com.example._Do.user.entity.User;
@@ -13,8 +15,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -36,6 +40,10 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final CurrentUserProvider currentUserProvider;
+    private final SecurityStampService securityStampService;
+    /** Absent when Redis is disabled; responses then carry no refresh token. */
+    private final ObjectProvider<RefreshTokenService> refreshTokenServiceProvider;
 
     /**
      * Creates a new user account and returns a JWT token.
@@ -61,10 +69,7 @@ public class AuthenticationService {
         userRepository.save(user);
         log.info("User registered successfully with ID: {}", user.getId());
 
-        String jwtToken = jwtService.generateToken(nameClaimsFor(user), user);
-        return AuthenticationResponse.builder()
-                .token(jwtToken)
-                .build();
+        return issueTokens(user);
     }
 
     /**
@@ -85,24 +90,92 @@ public class AuthenticationService {
             );
         } catch (BadCredentialsException e) {
             throw new InvalidCredentialsException("Invalid username or password.");
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps failures raised while loading the user, including the timing-attack dummy hash
+            if (e.getCause() instanceof PasswordHashingUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw e;
         }
 
         User user = userRepository.findByEmail(request.email()).orElseThrow(
                 () -> new InvalidCredentialsException("Invalid username or password.")
         );
 
-        String jwtToken = jwtService.generateToken(nameClaimsFor(user), user);
         log.info("User authenticated successfully: {}", user.getEmail());
+        return issueTokens(user);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token, without checking the password.
+     * <p>
+     * Refresh tokens are single-use; the token family is revoked if the user logged out everywhere
+     * since it was issued.
+     * </p>
+     *
+     * @param request The request containing the refresh token.
+     * @return AuthenticationResponse containing the new JWT and refresh token.
+     */
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService refreshTokenService = refreshTokenServiceProvider.getIfAvailable();
+        if (refreshTokenService == null) {
+            throw new InvalidCredentialsException("Refresh tokens are not available.");
+        }
+
+        RefreshTokenService.RefreshGrant grant = refreshTokenService.rotate(request.refreshToken());
+        User user = userRepository.findById(grant.userId()).orElse(null);
+        if (user == null || !grant.securityStamp().equals(user.getSecurityStamp())) {
+            refreshTokenService.revokeFamily(grant.familyId());
+            throw new InvalidCredentialsException("Invalid or expired refresh token.");
+        }
+
+        log.debug("Refreshed tokens for user {}", user.getId());
+        return withRefreshToken(user, grant);
+    }
 
+    /**
+     * Revokes every token of the current user, on all devices, by rotating the user's security stamp.
+     * The token used for this request is revoked as well.
+     */
+    @Transactional
+    public void logoutEverywhere() {
+        Long userId = currentUserProvider.getCurrentUser().id();
+        securityStampService.rotate(userId);
+        log.info("User {} logged out of all sessions", userId);
+    }
+
+    private AuthenticationResponse issueTokens(User user) {
+        RefreshTokenService refreshTokenService = refreshTokenServiceProvider.getIfAvailable();
+        if (refreshTokenService == null) {
+            return AuthenticationResponse.builder()
+                    .token(jwtService.generateToken(claimsFor(user), user))
+                    .build();
+        }
+        return withRefreshToken(user, refreshTokenService.issue(user.getId(), user.getSecurityStamp()));
+    }
+
+    /**
+     * Pairs a refresh token with an access token naming its family, so that logging out can revoke the family.
+     */
+    private AuthenticationResponse withRefreshToken(User user, RefreshTokenService.RefreshGrant grant) {
+        Map<String, Object> claims = claimsFor(user);
+        claims.put(JwtService.CLAIM_REFRESH_FAMILY, grant.familyId());
         return AuthenticationResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(claims, user))
+                .refreshToken(grant.refreshToken())
                 .build();
     }
 
-    private Map<String, Object> nameClaimsFor(User user) {
+    /**
+     * Identity claims that let the JWT filter authenticate requests without loading the user.
+     */
+    private Map<String, Object> claimsFor(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("firstName", user.getFirstName());
-        claims.put("lastName", user.getLastName());
+        claims.put(JwtService.CLAIM_USER_ID, user.getId());
+        claims.put(JwtService.CLAIM_ROLE, user.getRole() != null ? user.getRole().name() : null);
+        claims.put(JwtService.CLAIM_SECURITY_STAMP, user.getSecurityStamp());
+        claims.put(JwtService.CLAIM_FIRST_NAME, user.getFirstName());
+        claims.put(JwtService.CLAIM_LAST_NAME, user.getLastName());
         return claims;
     }
 }
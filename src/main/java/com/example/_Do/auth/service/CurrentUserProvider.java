@@ -0,0 +1,48 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the user of the current request from the security context.
+ * <p>
+ * The JWT filter stores an {@link AuthenticatedUser} as principal, so the lookup is normally free.
+ * Other authentication paths that carry a {@link User} are converted directly; anything else
+ * falls back to a lookup by username.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private final UserRepository userRepository;
+
+    /**
+     * @return The principal of the authenticated user.
+     * @throws AuthenticationCredentialsNotFoundException if the request is not authenticated.
+     */
+    public AuthenticatedUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+        if (principal instanceof User user) {
+            return AuthenticatedUser.from(user);
+        }
+        return userRepository.findByEmail(authentication.getName())
+                .map(AuthenticatedUser::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+}
@@ -1,37 +1,240 @@
 package com.example._Do.auth.service;
 
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service responsible for managing the lifecycle of invalidated JWT tokens.
+ * <p>
+ * Redis holds the authoritative blacklist, keyed by the compact revocation identifier of each token
+ * (its {@code jti}, or its SHA-256 for tokens issued without one). Each instance keeps a local Bloom filter
+ * of revoked identifiers in front of it, so the common "not revoked" answer needs no network call; Redis is
+ * only consulted on a probable hit. Instances learn about new revocations through Redis pub/sub,
+ * and the filter is rebuilt from a full scan periodically to catch missed messages and drop expired entries.
+ * Until the first rebuild succeeds, every lookup goes to Redis.
+ * </p>
+ * <p>
+ * Redis calls go through the {@link RedisCircuitBreaker}. While Redis is unavailable, a probable hit in the filter
+ * is treated as revoked, and revocations are kept locally and written to Redis once it recovers. If the filter has
+ * never been built, it knows nothing and every token is treated as revoked (fail closed); such rejections are
+ * counted in {@code jwt.blacklist.unsynced.rejections}.
+ * </p>
+ * <p>
+ * Entries written before token IDs were introduced are stored under the full token and are still honoured
+ * for tokens without a {@code jti}; they expire with the last of those tokens.
+ * </p>
  */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 @ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
-public class JwtBlacklistService {
+public class JwtBlacklistService implements MessageListener, MeterBinder {
+
+    private static final String JWT_REVOKED_PREFIX = "jwt_revoked:";
+    private static final String LEGACY_JWT_BLACKLIST_PREFIX = "jwt_blacklist:";
+    public static final String JWT_BLACKLIST_CHANNEL = "jwt_blacklist_events";
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
     private final StringRedisTemplate stringRedisTemplate;
-    private static final String JWT_BLACKLIST_PREFIX = "jwt_blacklist:";
+    private final RedisCircuitBreaker circuitBreaker;
+    private final long expectedRevocations;
+    /** Revocations that could not be written to Redis, by token ID, with the time they stop mattering. */
+    private final Map<String, Instant> pendingRevocations = new ConcurrentHashMap<>();
+
+    private volatile RevokedTokenBloomFilter filter;
+    /** Filter being rebuilt; receives revocations published during the scan. */
+    private volatile RevokedTokenBloomFilter pendingFilter;
+    private volatile boolean synced;
+    private final AtomicLong unsyncedRejections = new AtomicLong();
+
+    public JwtBlacklistService(
+            StringRedisTemplate stringRedisTemplate,
+            RedisCircuitBreaker circuitBreaker,
+            @Value("${application.security.jwt.blacklist.expected-revocations:100000}") long expectedRevocations
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new RevokedTokenBloomFilter(expectedRevocations, FALSE_POSITIVE_PROBABILITY);
+        circuitBreaker.onRecovery(this::reconcile);
+    }
 
     /**
      * Adds a token to the blacklist with a specific expiration time.
-     * @param token The JWT token to blacklist
+     * @param tokenId The revocation identifier of the token (see {@link JwtService#revocationId})
      * @param duration How long the token should stay in the blacklist (usually until its expiration)
      */
-    public void blacklistToken(String token, Duration duration) {
-        stringRedisTemplate.opsForValue().set(JWT_BLACKLIST_PREFIX + token, "true", duration);
+    public void blacklistToken(String tokenId, Duration duration) {
+        addToFilter(tokenId);
+        circuitBreaker.execute(() -> {
+            store(tokenId, duration);
+            return true;
+        }, () -> {
+            log.warn("Redis unavailable, token {} is revoked locally until it recovers", tokenId);
+            pendingRevocations.put(tokenId, Instant.now().plus(duration));
+            return false;
+        });
     }
 
     /**
      * Checks if a token is present in the blacklist.
+     * @param claims The verified claims of the token
      * @param token The JWT token to check
      * @return true if blacklisted, false otherwise
      */
-    public boolean isTokenBlacklisted(String token) {
-        return stringRedisTemplate.hasKey(JWT_BLACKLIST_PREFIX + token);
+    public boolean isTokenBlacklisted(Claims claims, String token) {
+        return revocationCheck(claims, token).map(this::isRevoked).orElse(false);
+    }
+
+    /**
+     * Consults the local filter.
+     * @param claims The verified claims of the token
+     * @param token The JWT token to check
+     * @return The Redis lookup still needed to decide, or empty if the token is certainly not revoked
+     */
+    public Optional<RevocationCheck> revocationCheck(Claims claims, String token) {
+        String tokenId = JwtService.revocationId(claims, token);
+        if (synced && !filter.mightContain(tokenId)) {
+            return Optional.empty();
+        }
+        // Tokens without an ID may have been blacklisted before token IDs were introduced, under the full token;
+        // both keys are checked with a single EXISTS
+        List<String> keys = claims.getId() == null
+                ? List.of(JWT_REVOKED_PREFIX + tokenId, LEGACY_JWT_BLACKLIST_PREFIX + token)
+                : List.of(JWT_REVOKED_PREFIX + tokenId);
+        return Optional.of(new RevocationCheck(tokenId, keys));
+    }
+
+    /**
+     * Makes the Redis lookup of {@link #revocationCheck}, or answers locally while Redis is unavailable.
+     */
+    public boolean isRevoked(RevocationCheck check) {
+        return circuitBreaker.execute(
+                () -> {
+                    Long existing = stringRedisTemplate.countExistingKeys(check.keys());
+                    return existing != null && existing > 0;
+                },
+                () -> isRevokedLocally(check.tokenId()));
+    }
+
+    /**
+     * Answer used while Redis is unavailable: a probable hit in the filter is treated as revoked.
+     * Before the first rebuild the filter is empty, so nothing can be cleared and the token is treated as revoked.
+     */
+    public boolean isRevokedLocally(String tokenId) {
+        if (!synced) {
+            if (unsyncedRejections.getAndIncrement() == 0) {
+                log.warn("Redis unavailable before the blacklist filter was built, rejecting tokens until it is");
+            }
+            return true;
+        }
+        return filter.mightContain(tokenId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.blacklist.unsynced.rejections", unsyncedRejections, AtomicLong::get)
+                .description("Tokens rejected because Redis was unavailable before the blacklist filter was built")
+                .register(registry);
+    }
+
+    /**
+     * Receives revocations published by other instances.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addToFilter(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rebuilds the local filter from the keys currently in Redis.
+     * Runs at startup and then periodically; on failure the previous filter is kept.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.blacklist.resync-interval:PT5M}")
+    public void resync() {
+        if (!circuitBreaker.isClosed()) {
+            return;
+        }
+        RevokedTokenBloomFilter next = new RevokedTokenBloomFilter(expectedRevocations, FALSE_POSITIVE_PROBABILITY);
+        pendingFilter = next;
+        long count;
+        try {
+            count = scanInto(next, JWT_REVOKED_PREFIX, false)
+                    + scanInto(next, LEGACY_JWT_BLACKLIST_PREFIX, true);
+        } catch (DataAccessException e) {
+            pendingFilter = null;
+            log.warn("Blacklist filter resync failed, keeping the previous filter: {}", e.getMessage());
+            return;
+        }
+        filter = next;
+        pendingFilter = null;
+        synced = true;
+        if (count > expectedRevocations) {
+            log.warn("Blacklist holds {} tokens, above the {} the filter is sized for", count, expectedRevocations);
+        }
+        log.debug("Blacklist filter rebuilt with {} revoked tokens", count);
+    }
+
+    /**
+     * Writes revocations made during a Redis outage, then rebuilds the filter to pick up
+     * revocations other instances published while this one could not receive them.
+     */
+    void reconcile() {
+        Instant now = Instant.now();
+        pendingRevocations.forEach((tokenId, expiresAt) -> {
+            if (expiresAt.isAfter(now)) {
+                store(tokenId, Duration.between(now, expiresAt));
+            }
+            pendingRevocations.remove(tokenId, expiresAt);
+        });
+        resync();
+    }
+
+    private void store(String tokenId, Duration duration) {
+        stringRedisTemplate.opsForValue().set(JWT_REVOKED_PREFIX + tokenId, "true", duration);
+        stringRedisTemplate.convertAndSend(JWT_BLACKLIST_CHANNEL, tokenId);
+    }
+
+    private long scanInto(RevokedTokenBloomFilter target, String prefix, boolean legacyKeys) {
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String suffix = keys.next().substring(prefix.length());
+                target.put(legacyKeys ? JwtService.hashToken(suffix) : suffix);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void addToFilter(String tokenId) {
+        // Read the pending filter first: once it is null, a finished rebuild has already been published as filter
+        RevokedTokenBloomFilter pending = pendingFilter;
+        filter.put(tokenId);
+        if (pending != null) {
+            pending.put(tokenId);
+        }
     }
 }
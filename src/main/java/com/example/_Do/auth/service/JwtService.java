@@ -1,6 +1,9 @@
 package com.example._Do.auth.service;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.user.entity.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,10 +12,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -21,16 +31,39 @@ import java.util.function.Function;
  * This class provides methods to generate, validate, and extract information from JWT tokens.
  * Configuration values (secret key, expiration) are injected from the application.yml file.
  * </p>
+ * <p>
+ * Tokens are verified once and their claims are kept in a bounded cache keyed by the SHA-256 of the
+ * token until the token expires, so repeated requests with the same token skip the signature check.
+ * The signing key and parser are built once.
+ * </p>
  */
 @Service
 public class JwtService {
 
+    /** Claim names of the identity carried by access tokens. */
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_STAMP = "stamp";
+    public static final String CLAIM_FIRST_NAME = "firstName";
+    public static final String CLAIM_LAST_NAME = "lastName";
+
+    /** Refresh token family the access token was issued with; logging out revokes it. */
+    public static final String CLAIM_REFRESH_FAMILY = "rfam";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
 
+    /** Maximum number of verified tokens kept in memory; 0 disables the cache. */
+    @Value("${application.security.jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
+    private final Map<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+    private volatile Key signInKey;
+    private volatile JwtParser parser;
+
     /**
      * Extracts the username (subject) from the JWT token.
      *
@@ -50,7 +83,7 @@ public class JwtService {
      * @return The extracted claim value.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
@@ -94,6 +127,7 @@ public class JwtService {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
@@ -108,35 +142,131 @@ public class JwtService {
      * @return True if token belongs to the user and is not expired, False otherwise.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        // CRITICAL CHECK: Token username matches AND token is not expired
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        // CRITICAL CHECK: Token username matches AND token is not expired (single parse)
+        final Claims claims = parseToken(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
+    }
+
+    public Date extractExpiration(String token) {
+        return extractClaim(token, Claims::getExpiration);
     }
 
     /**
-     * Checks if the token has expired.
+     * Verifies the token and returns its claims, parsing it at most once while it is valid.
+     * The returned claims may be shared between requests and must be treated as read-only.
      *
      * @param token The JWT token.
-     * @return True if expired, False otherwise.
+     * @return All claims of the token.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Claims parseToken(String token) {
+        if (claimsCacheMaxEntries <= 0) {
+            return extractAllClaims(token);
+        }
+
+        final String key = hashToken(token);
+        final long now = System.currentTimeMillis();
+        CachedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAt()) {
+                return cached.claims();
+            }
+            claimsCache.remove(key);
+        }
+
+        // Throws for tampered or expired tokens, so only verified claims are cached
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            cacheClaims(key, claims, now);
+        }
+        return claims;
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Compact identifier under which a token is revoked: its {@code jti} claim, or the SHA-256 of the
+     * token for tokens issued before token IDs were introduced.
+     *
+     * @param claims The verified claims of the token.
+     * @param token  The JWT token.
+     * @return The revocation identifier.
+     */
+    public static String revocationId(Claims claims, String token) {
+        return claims.getId() != null ? claims.getId() : hashToken(token);
+    }
+
+    /**
+     * Builds the request principal from the identity claims of a parsed token.
+     *
+     * @param claims The verified claims.
+     * @return The principal, or empty for tokens issued without identity claims.
+     */
+    public Optional<AuthenticatedUser> extractPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.get(CLAIM_SECURITY_STAMP) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(
+                userId.longValue(),
+                claims.getSubject(),
+                Role.valueOf(role),
+                claims.get(CLAIM_FIRST_NAME, String.class),
+                claims.get(CLAIM_LAST_NAME, String.class)
+        ));
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private void cacheClaims(String key, Claims claims, long now) {
+        if (claimsCache.size() >= claimsCacheMaxEntries) {
+            claimsCache.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (claimsCache.size() >= claimsCacheMaxEntries) {
+                claimsCache.clear();
+            }
+        }
+        claimsCache.put(key, new CachedClaims(claims, claims.getExpiration().getTime()));
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key current = signInKey;
+        if (current == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            current = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = current;
+        }
+        return current;
+    }
+
+    /**
+     * Compact, non-reversible identifier of a token (Base64 SHA-256), safe to use as a cache key or broadcast.
+     *
+     * @param token The JWT token.
+     * @return The digest of the token.
+     */
+    public static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
     }
-}
\ No newline at end of file
+}
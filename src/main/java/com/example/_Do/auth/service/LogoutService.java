@@ -1,5 +1,6 @@
 package com.example._Do.auth.service;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +12,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
 
 /**
  * Service responsible for handling secure user logout in a stateless JWT environment.
@@ -23,10 +23,13 @@ public class LogoutService implements LogoutHandler {
 
     private final JwtBlacklistService jwtBlacklistService;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Performs the logout operation by extracting the JWT from the request,
      * calculating its remaining validity, and adding it to the global blacklist.
+     * The refresh token family the JWT was issued with is revoked as well, so the
+     * session cannot be resumed through the refresh endpoint.
      *
      * @param request        The incoming HTTP request containing the Authorization header.
      * @param response       The HTTP response.
@@ -47,10 +50,15 @@ public class LogoutService implements LogoutHandler {
 
         jwt = authHeader.substring(7);
 
-        Date expirationDate = jwtService.extractExpiration(jwt);
-        Duration remainingDuration = Duration.between(Instant.now(), expirationDate.toInstant());
+        Claims claims = jwtService.parseToken(jwt);
+        Duration remainingDuration = Duration.between(Instant.now(), claims.getExpiration().toInstant());
 
-        jwtBlacklistService.blacklistToken(jwt, remainingDuration);
+        jwtBlacklistService.blacklistToken(JwtService.revocationId(claims, jwt), remainingDuration);
+
+        String familyId = claims.get(JwtService.CLAIM_REFRESH_FAMILY, String.class);
+        if (familyId != null) {
+            refreshTokenService.revokeFamily(familyId);
+        }
 
         SecurityContextHolder.clearContext();
 
@@ -0,0 +1,37 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores re-encoded password hashes after a successful login.
+ * <p>
+ * Called by the {@code DaoAuthenticationProvider} when the stored hash uses outdated parameters
+ * (a lower BCrypt strength, or an algorithm other than the current default). The raw password
+ * is only available at login, so this is the only point where a hash can be upgraded transparently.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        log.info("Upgraded password hash of user {}", user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.common.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker for the Redis calls on the request path (rate limiting and the token blacklist).
+ * <p>
+ * After {@code failure-threshold} consecutive failures the circuit opens and callers get their local fallback
+ * immediately, without waiting for Redis to time out. After {@code open-duration} a single trial call is let
+ * through; if it succeeds the circuit closes and the recovery listeners run in the background to reconcile
+ * the state built up locally during the outage.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisCircuitBreaker extends CircuitBreaker {
+
+    public RedisCircuitBreaker(
+            @Value("${application.redis.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${application.redis.circuit-breaker.open-duration:PT10S}") Duration openDuration
+    ) {
+        super("redis", failureThreshold, openDuration);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.user.exception.InvalidCredentialsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service responsible for issuing and rotating opaque refresh tokens stored in Redis.
+ * <p>
+ * Every login starts a token family. Each refresh exchanges the presented token for a new one in the same
+ * family and marks the old one as used. Presenting a used token again means it was copied, so the whole
+ * family is revoked and the holder has to log in again.
+ * </p>
+ * <p>
+ * Only the SHA-256 of each token is stored. A token entry lives as long as the refresh token expiration,
+ * and the family expires after the same period without a refresh.
+ * </p>
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenService {
+
+    private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
+    private static final String REFRESH_FAMILY_PREFIX = "refresh_family:";
+    private static final String FIELD_FAMILY = "family";
+    private static final String FIELD_USED_AT = "usedAt";
+    private static final int TOKEN_BYTES = 32;
+
+    /*
+     * KEYS[1]: token entry. ARGV: family field, family ID, lifetime in ms.
+     * Creates the entry with its expiry in one step, so a failure in between cannot leave a token that never expires.
+     */
+    private static final RedisScript<Long> CREATE_TOKEN = RedisScript.of("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration expiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * Result of issuing or rotating a refresh token.
+     *
+     * @param userId        Owner of the token family.
+     * @param securityStamp Security stamp of the user when the family was started.
+     * @param familyId      Family the new token belongs to.
+     * @param refreshToken  The new refresh token to hand to the client.
+     */
+    public record RefreshGrant(Long userId, String securityStamp, String familyId, String refreshToken) {
+    }
+
+    public RefreshTokenService(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${application.security.jwt.refresh-token.expiration}") long expirationMillis
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.expiration = Duration.ofMillis(expirationMillis);
+    }
+
+    /**
+     * Starts a new token family for a freshly authenticated user.
+     *
+     * @param userId        The authenticated user.
+     * @param securityStamp The user's current security stamp; the family is revoked once it changes.
+     * @return The new family and its first refresh token.
+     */
+    public RefreshGrant issue(Long userId, String securityStamp) {
+        String familyId = UUID.randomUUID().toString();
+        stringRedisTemplate.opsForValue().set(REFRESH_FAMILY_PREFIX + familyId, userId + ":" + securityStamp, expiration);
+        return new RefreshGrant(userId, securityStamp, familyId, newToken(familyId));
+    }
+
+    /**
+     * Exchanges a refresh token for a new one in the same family.
+     *
+     * @param refreshToken The token presented by the client.
+     * @return The owner of the family and the replacement token.
+     * @throws InvalidCredentialsException if the token is unknown, expired, revoked or was already used.
+     */
+    public RefreshGrant rotate(String refreshToken) {
+        String tokenKey = REFRESH_TOKEN_PREFIX + JwtService.hashToken(refreshToken);
+        Map<Object, Object> entry = stringRedisTemplate.opsForHash().entries(tokenKey);
+        if (entry.isEmpty()) {
+            throw invalidToken();
+        }
+
+        String familyId = (String) entry.get(FIELD_FAMILY);
+        String family = stringRedisTemplate.opsForValue().get(REFRESH_FAMILY_PREFIX + familyId);
+        if (family == null) {
+            throw invalidToken();
+        }
+
+        // HSETNX: only one request can consume a token, a second one is a replay
+        Boolean firstUse = stringRedisTemplate.opsForHash().putIfAbsent(tokenKey, FIELD_USED_AT, Instant.now().toString());
+        if (!Boolean.TRUE.equals(firstUse)) {
+            revokeFamily(familyId);
+            log.warn("Refresh token reuse detected, revoked token family {}", familyId);
+            throw invalidToken();
+        }
+
+        String[] owner = family.split(":", 2);
+        stringRedisTemplate.expire(REFRESH_FAMILY_PREFIX + familyId, expiration);
+        return new RefreshGrant(Long.valueOf(owner[0]), owner[1], familyId, newToken(familyId));
+    }
+
+    /**
+     * Revokes every refresh token of a family, including ones not yet used.
+     */
+    public void revokeFamily(String familyId) {
+        stringRedisTemplate.delete(REFRESH_FAMILY_PREFIX + familyId);
+    }
+
+    private String newToken(String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        String tokenKey = REFRESH_TOKEN_PREFIX + JwtService.hashToken(token);
+        stringRedisTemplate.execute(CREATE_TOKEN, List.of(tokenKey), FIELD_FAMILY, familyId,
+                String.valueOf(expiration.toMillis()));
+        return token;
+    }
+
+    private static InvalidCredentialsException invalidToken() {
+        return new InvalidCredentialsException("Invalid or expired refresh token.");
+    }
+}
@@ -0,0 +1,18 @@
+package com.example._Do.auth.service;
+
+import java.util.List;
+
+/**
+ * A blacklist lookup that still has to be made in Redis for a token the local filter could not clear.
+ *
+ * @param tokenId The revocation identifier of the token (see {@link JwtService#revocationId}).
+ * @param keys    The Redis keys under which the token may be blacklisted; it is revoked if any of them exists.
+ */
+public record RevocationCheck(String tokenId, List<String> keys) {
+
+    /**
+     * Request attribute under which the authentication filter hands the lookup over to the rate limiter,
+     * which makes it in the same Redis round-trip as the rate limit consumption.
+     */
+    public static final String REQUEST_ATTRIBUTE = RevocationCheck.class.getName();
+}
@@ -0,0 +1,27 @@
+package com.example._Do.auth.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts security stamp rotations to the other instances through Redis pub/sub,
+ * so their cached stamps are evicted immediately instead of at the end of the cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class SecurityStampEventPublisher {
+
+    public static final String SECURITY_STAMP_CHANNEL = "security_stamp_events";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * @param userId The ID of the user whose stamp was rotated.
+     */
+    public void publishRotation(Long userId) {
+        stringRedisTemplate.convertAndSend(SECURITY_STAMP_CHANNEL, userId.toString());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example._Do.auth.service;
+
+import com.example._Do.common.resilience.CircuitBreaker;
+import com.example._Do.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Validates the security stamp carried by access tokens against the user's current stamp.
+ * <p>
+ * Current stamps are kept in a bounded local cache for a short TTL, so the user row is read
+ * only on a cache miss or when a token carries a stamp newer than the cached one. If the database
+ * is unavailable, the signed claims are trusted rather than failing the request.
+ * </p>
+ * <p>
+ * A lookup gives up after {@code lookup-timeout} instead of waiting for the connection pool timeout, and lookups
+ * go through a {@link CircuitBreaker}: while the database is known to be down, requests skip it entirely.
+ * </p>
+ * <p>
+ * The stamp acts as the user's token epoch: rotating it revokes every older token at once
+ * ("log out everywhere"). Rotations are broadcast over Redis pub/sub when available, so other
+ * instances drop their cached stamp immediately; the TTL only bounds staleness if a message is lost.
+ * </p>
+ */
+@Service
+@Slf4j
+public class SecurityStampService implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration lookupTimeout;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, CachedStamp> cache = new ConcurrentHashMap<>();
+    @Autowired(required = false)
+    private SecurityStampEventPublisher eventPublisher;
+
+    public SecurityStampService(
+            UserRepository userRepository,
+            @Value("${application.security.jwt.stamp-cache.ttl:PT5M}") Duration ttl,
+            @Value("${application.security.jwt.stamp-cache.max-entries:10000}") int maxEntries,
+            @Value("${application.security.jwt.stamp-cache.lookup-timeout:PT1S}") Duration lookupTimeout,
+            @Value("${application.security.jwt.stamp-cache.circuit-breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${application.security.jwt.stamp-cache.circuit-breaker.open-duration:PT10S}") Duration openDuration
+    ) {
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.lookupTimeout = lookupTimeout;
+        this.circuitBreaker = new CircuitBreaker("security-stamp", failureThreshold, openDuration);
+    }
+
+    /**
+     * Checks whether a token stamp is still the user's current stamp.
+     *
+     * @param userId   The ID of the user (token {@code uid} claim).
+     * @param stamp    The stamp carried by the token.
+     * @param issuedAt When the token was issued.
+     * @return True if the stamp is current, False if it was rotated or the user no longer exists.
+     */
+    public boolean isCurrent(Long userId, String stamp, Instant issuedAt) {
+        CachedStamp cached = cache.get(userId);
+        if (cached != null && !cached.isExpired()) {
+            if (cached.stamp().equals(stamp)) {
+                return true;
+            }
+            // Issued before the cached stamp was read: the token stamp had already been rotated away
+            // (iat has second precision, hence the one-second margin)
+            if (issuedAt.isBefore(cached.loadedAt().minusSeconds(1))) {
+                return false;
+            }
+        }
+
+        // Null when the database is unavailable: the signed claims are trusted
+        Optional<String> current = circuitBreaker.execute(
+                () -> load(userId),
+                () -> null,
+                DataAccessException.class::isInstance
+        );
+        if (current == null) {
+            return cached == null || cached.stamp().equals(stamp);
+        }
+
+        if (current.isEmpty()) {
+            cache.remove(userId);
+            return false;
+        }
+        put(userId, current.get());
+        return current.get().equals(stamp);
+    }
+
+    /**
+     * Assigns a new stamp to the user, invalidating every token issued before.
+     *
+     * @param userId The ID of the user.
+     * @return The new stamp.
+     */
+    @Transactional
+    public String rotate(Long userId) {
+        String stamp = UUID.randomUUID().toString();
+        userRepository.updateSecurityStamp(userId, stamp);
+        // Only once committed: a node reloading the stamp earlier would cache the old value
+        afterCommit(() -> {
+            put(userId, stamp);
+            if (eventPublisher != null) {
+                eventPublisher.publishRotation(userId);
+            }
+        });
+        log.info("Rotated security stamp of user {}", userId);
+        return stamp;
+    }
+
+    /**
+     * Drops the cached stamp of a user, forcing the next request to read it from the database.
+     */
+    public void evict(Long userId) {
+        cache.remove(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        circuitBreaker.bindTo(registry);
+    }
+
+    /**
+     * Reads the current stamp on a virtual thread, so the request waits at most {@code lookupTimeout}
+     * even while the pool blocks for a connection that will not come.
+     */
+    private Optional<String> load(Long userId) {
+        Future<Optional<String>> lookup = lookupExecutor.submit(() -> userRepository.findSecurityStampById(userId));
+        try {
+            return lookup.get(lookupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            lookup.cancel(true);
+            log.warn("Security stamp lookup of user {} timed out after {}, trusting token claims", userId, lookupTimeout);
+            throw new QueryTimeoutException("Security stamp lookup timed out", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAccessException dataAccessException) {
+                log.warn("Could not load security stamp of user {}, trusting token claims: {}",
+                        userId, dataAccessException.getMessage());
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            lookup.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted while loading the security stamp", e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void put(Long userId, String stamp) {
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(CachedStamp::isExpired);
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        Instant now = Instant.now();
+        cache.put(userId, new CachedStamp(stamp, now, now.plus(ttl)));
+    }
+
+    private record CachedStamp(String stamp, Instant loadedAt, Instant expiresAt) {
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example._Do.common.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Consecutive-failure circuit breaker for calls to an external dependency.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and callers get their fallback immediately,
+ * without waiting for the dependency to time out. After {@code openDuration} a single trial call is let through;
+ * if it succeeds the circuit closes and the recovery listeners run in the background, one after the other, on a
+ * thread of their own: they typically make blocking calls to the dependency, which must not tie up the common pool.
+ * </p>
+ * <p>
+ * Metrics are published as {@code <name>.circuit.state}, {@code <name>.circuit.fallbacks} and
+ * {@code <name>.circuit.openings}.
+ * </p>
+ */
+@Slf4j
+public class CircuitBreaker implements MeterBinder {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong openings = new AtomicLong();
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService recoveryExecutor;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        // The thread only lives while recovery tasks run
+        this.recoveryExecutor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-circuit-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a call, or its fallback when the circuit is open or the call fails.
+     *
+     * @param call     The call to the dependency.
+     * @param fallback The answer used while the dependency is unavailable.
+     * @return The result of the call or of the fallback.
+     */
+    public <T> T execute(Supplier<T> call, Supplier<T> fallback) {
+        return execute(call, fallback, e -> true);
+    }
+
+    /**
+     * Runs a call, or its fallback when the circuit is open or the call fails with a recorded failure.
+     * Exceptions that are not recorded (e.g. client errors) mean the dependency answered; they count as a success
+     * and are rethrown to the caller.
+     *
+     * @param call          The call to the dependency.
+     * @param fallback      The answer used while the dependency is unavailable.
+     * @param recordFailure Whether an exception counts as a failure of the dependency.
+     * @return The result of the call or of the fallback.
+     */
+    public <T> T execute(Supplier<T> call, Supplier<T> fallback, Predicate<RuntimeException> recordFailure) {
+        if (!tryAcquirePermission()) {
+            fallbacks.incrementAndGet();
+            return fallback.get();
+        }
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (!recordFailure.test(e)) {
+                onSuccess();
+                throw e;
+            }
+            onFailure(e);
+            fallbacks.incrementAndGet();
+            return fallback.get();
+        }
+    }
+
+    /**
+     * @return Whether calls currently go to the dependency; background jobs use this to skip work during an outage.
+     */
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Registers a task to run, off the calling thread, each time the circuit closes again.
+     */
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(name + ".circuit.state", state, s -> s.get().ordinal())
+                .description("Circuit breaker state (0 closed, 1 open, 2 half-open)")
+                .register(registry);
+        FunctionCounter.builder(name + ".circuit.fallbacks", fallbacks, AtomicLong::get)
+                .description("Calls answered by the fallback instead of the dependency")
+                .register(registry);
+        FunctionCounter.builder(name + ".circuit.openings", openings, AtomicLong::get)
+                .description("Times the circuit breaker opened")
+                .register(registry);
+    }
+
+    private boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        // Only one trial call while half-open; everyone else keeps using the fallback
+        return current == State.OPEN
+                && System.nanoTime() - openedAtNanos >= openDurationNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            log.info("{} is reachable again, circuit closed", name);
+            recoveryListeners.forEach(listener -> recoveryExecutor.execute(() -> {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    log.warn("{} recovery task failed: {}", name, e.getMessage());
+                }
+            }));
+        }
+    }
+
+    private void onFailure(RuntimeException e) {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos = System.nanoTime();
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                openings.incrementAndGet();
+                log.warn("{} circuit opened, using fallbacks: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.example._Do.config;
 
+import com.example._Do.auth.password.BCryptStrengthCalibrator;
+import com.example._Do.auth.password.BoundedPasswordEncoder;
 import com.example._Do.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Core configuration class for application-wide security beans.
@@ -38,13 +49,18 @@ public class ApplicationConfig {
 
     /**
      * The Data Access Object (DAO) based authentication provider.
-     * It connects the UserDetailsService and PasswordEncoder to verify credentials.
+     * It connects the UserDetailsService and PasswordEncoder to verify credentials,
+     * and re-encodes hashes with outdated parameters after a successful login.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(
+            PasswordEncoder passwordEncoder,
+            UserDetailsPasswordService passwordUpgradeService
+    ) {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(userDetailsService());
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        daoAuthenticationProvider.setUserDetailsPasswordService(passwordUpgradeService);
         return daoAuthenticationProvider;
     }
 
@@ -58,9 +74,37 @@ public class ApplicationConfig {
 
     /**
      * Defines the password hashing algorithm.
+     * <p>
+     * New hashes use the configured algorithm ({@code bcrypt} with a strength calibrated at startup, or {@code argon2})
+     * and carry an {@code {id}} prefix; unprefixed hashes from before are read as BCrypt. All hashing runs on a bounded
+     * executor so login bursts cannot take every CPU from request threads.
+     * </p>
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${application.security.password.encoding-id:bcrypt}") String encodingId,
+            @Value("${application.security.password.bcrypt.target-hash-time:PT0.25S}") Duration targetHashTime,
+            @Value("${application.security.password.bcrypt.min-strength:10}") int minStrength,
+            @Value("${application.security.password.bcrypt.max-strength:14}") int maxStrength,
+            @Value("${application.security.password.hashing.threads:0}") int threads,
+            @Value("${application.security.password.hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${application.security.password.hashing.wait-timeout:PT5S}") Duration waitTimeout
+    ) {
+        if ("argon2".equals(encodingId) && !ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null)) {
+            throw new IllegalStateException("Argon2 password hashing requires org.bouncycastle:bcprov-jdk18on on the classpath");
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(
+                BCryptStrengthCalibrator.calibrate(targetHashTime, minStrength, maxStrength));
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, poolSize, queueCapacity, waitTimeout);
     }
 }
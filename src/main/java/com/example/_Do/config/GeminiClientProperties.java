@@ -0,0 +1,84 @@
+package com.example._Do.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Outbound HTTP client settings for the Gemini API, bound from {@code google.gemini.client}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "google.gemini.client")
+public class GeminiClientProperties {
+
+    /**
+     * Time allowed to establish a connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time allowed for the response; audio extraction usually answers within a few seconds.
+     */
+    private Duration readTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Bulkhead: maximum concurrent calls to Gemini from this instance.
+     */
+    private int maxConcurrentCalls = 4;
+
+    /**
+     * How long a call waits for a free bulkhead slot before failing.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    private Retry retry = new Retry();
+
+    private CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+
+    /**
+     * Longest a single call can take when every attempt runs into its timeouts: the wait for a bulkhead slot,
+     * the connect and read timeout of each attempt, and the longest backoff between attempts.
+     */
+    public Duration maxCallDuration() {
+        int attempts = Math.max(1, retry.getMaxAttempts());
+        return acquireTimeout
+                .plus(connectTimeout.plus(readTimeout).multipliedBy(attempts))
+                .plus(retry.getMaxBackoff().multipliedBy(attempts - 1));
+    }
+
+    /**
+     * Retries on 429 Too Many Requests and 503 Service Unavailable, with full-jitter exponential backoff.
+     * A {@code Retry-After} header is honoured when it does not exceed {@code max-backoff}.
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * Total attempts, including the first call.
+         */
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(500);
+
+        private Duration maxBackoff = Duration.ofSeconds(8);
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreakerSettings {
+
+        /**
+         * Consecutive failed calls (after retries) that open the circuit.
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * How long calls fail fast before a trial call is let through.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
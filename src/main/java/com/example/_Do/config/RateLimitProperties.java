@@ -0,0 +1,129 @@
+package com.example._Do.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limiting settings bound from {@code application.rate-limit}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether rate limiting (and the Redis infrastructure behind it) is active.
+     */
+    private boolean enabled = true;
+
+    /**
+     * {@code redis}: every request consumes from the bucket in Redis.
+     * {@code hybrid}: requests consume from a local copy of the bucket that is reconciled with Redis in batches.
+     */
+    private Mode mode = Mode.HYBRID;
+
+    /**
+     * Rate limit policies. A request consumes from the bucket of every policy it matches.
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    private Hybrid hybrid = new Hybrid();
+
+    public enum Mode {
+        REDIS,
+        HYBRID
+    }
+
+    /**
+     * What a policy counts requests by.
+     */
+    public enum KeyType {
+        /** Client IP; behind trusted proxies, the address they appended to {@code X-Forwarded-For}. */
+        IP,
+        /** Authenticated user ID; anonymous requests fall back to {@link #IP}. */
+        USER,
+        /**
+         * Authenticated user within the group of the {@code groupId} path variable or request parameter;
+         * requests without a numeric one fall back to {@link #USER}.
+         */
+        GROUP
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /**
+         * Unique name, part of the bucket key in Redis.
+         */
+        private String name;
+
+        /**
+         * Path patterns the policy applies to (e.g., {@code /api/v1/tasks/**}).
+         */
+        private List<String> patterns = new ArrayList<>();
+
+        /**
+         * HTTP methods the policy applies to; empty means all.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        private KeyType key = KeyType.IP;
+
+        /**
+         * Limits enforced together on each bucket of the policy (e.g., a burst limit and a daily limit).
+         */
+        private List<Limit> limits = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /**
+         * Maximum number of requests within one period.
+         */
+        private long capacity;
+
+        /**
+         * Period in which the full capacity is refilled.
+         */
+        private Duration period;
+    }
+
+    @Getter
+    @Setter
+    public static class Hybrid {
+
+        /**
+         * Requests a node may admit per bucket before it must synchronize with Redis.
+         * With N nodes the global limit can be exceeded by at most N times this value.
+         */
+        private long maxUnsynchronizedTokens = 5;
+
+        /**
+         * Maximum age of the local view of a bucket before a request synchronizes it inline.
+         */
+        private Duration maxUnsynchronizedTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Interval of the background job that pushes locally consumed tokens to Redis.
+         */
+        private Duration syncInterval = Duration.ofMillis(500);
+
+        /**
+         * Local buckets unused for this long are dropped after their last synchronization.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Upper bound on the number of local buckets held by this node.
+         */
+        private int maxLocalBuckets = 10000;
+    }
+}
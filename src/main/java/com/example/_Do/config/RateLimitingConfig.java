@@ -4,16 +4,13 @@ import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
 import io.github.bucket4j.distributed.proxy.ClientSideConfig;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
 import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
-import io.lettuce.core.RedisClient;
-import io.lettuce.core.RedisURI;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.codec.ByteArrayCodec;
-import io.lettuce.core.codec.RedisCodec;
-import io.lettuce.core.codec.StringCodec;
-import org.springframework.beans.factory.annotation.Value;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import java.time.Duration;
 
 
@@ -25,62 +22,47 @@ import java.time.Duration;
  */
 @Configuration
 @ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class RateLimitingConfig {
 
-    @Value("${spring.data.redis.host}")
-    private String redisHost;
-
-    @Value("${spring.data.redis.port}")
-    private int redisPort;
-
-    @Value("${spring.data.redis.password}")
-    private String redisPassword;
-
-    @Value("${spring.data.redis.ssl.enabled}")
-    private boolean redisSsl;
-
-    /**
-     * Initializes the RedisClient with SSL support, tailored for cloud providers
-     * like Azure Cache for Redis.
-     *
-     * @return Configured RedisClient for establishing connections to the Redis cluster.
-     */
-    @Bean
-    public RedisClient redisClient() {
-        RedisURI.Builder builder = RedisURI.builder()
-                .withHost(redisHost)
-                .withPort(redisPort)
-                .withSsl(redisSsl);
-
-        if (redisPassword != null && !redisPassword.isBlank()) {
-            builder.withPassword(redisPassword.toCharArray());
-        }
-
-        return RedisClient.create(builder.build());
-    }
-
     /**
      * Configures the ProxyManager to handle distributed bucket state.
      * Uses Lettuce as the underlying Redis driver and implements an
      * expiration strategy to optimize Redis memory usage. Buckets are
      * automatically evicted from Redis after 1 hour of inactivity to prevent
      * state bloat.
+     * <p>
+     * Bucket4j runs on the shared native connection of Spring Boot's {@link LettuceConnectionFactory}, the one
+     * {@link org.springframework.data.redis.core.StringRedisTemplate} uses, so rate limiting and the token blacklist
+     * share one connection and one set of {@code spring.data.redis.*} settings, and the connection is closed with
+     * the factory. Bucket4j only issues single commands and Lua scripts (no transactions), which is safe on a
+     * multiplexed connection.
+     * </p>
      *
-     * @param redisClient The primary Redis client.
+     * @param connectionFactory The Redis connection factory auto-configured by Spring Boot.
      * @return ProxyManager configured with Lettuce-based CAS (Compare-And-Swap) operations.
      */
     @Bean
-    public ProxyManager<String> proxyManager(RedisClient redisClient) {
-        StatefulRedisConnection<String, byte[]> connection = redisClient.connect(
-                RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE)
-        );
+    @SuppressWarnings("unchecked")
+    public ProxyManager<byte[]> proxyManager(LettuceConnectionFactory connectionFactory) {
+        if (!connectionFactory.getShareNativeConnection()) {
+            throw new IllegalStateException("Rate limiting requires spring.data.redis to share its native connection");
+        }
+        Object commands;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            // Closing the wrapper leaves the shared connection open; it belongs to the factory
+            commands = connection.getNativeConnection();
+        }
+        if (!(commands instanceof RedisAsyncCommands<?, ?> asyncCommands)) {
+            throw new IllegalStateException("Rate limiting requires a standalone Redis connection");
+        }
 
         ClientSideConfig clientSideConfig = ClientSideConfig.getDefault().
                 withExpirationAfterWriteStrategy(ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(
                         Duration.ofHours(1)
                 ));
 
-        return LettuceBasedProxyManager.builderFor(connection)
+        return LettuceBasedProxyManager.builderFor((RedisAsyncCommands<byte[], byte[]>) asyncCommands)
                 .withClientSideConfig(clientSideConfig)
                 .build();
 
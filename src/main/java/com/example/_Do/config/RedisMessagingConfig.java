@@ -0,0 +1,44 @@
+package com.example._Do.config;
+
+import com.example._Do.auth.service.JwtBlacklistService;
+import com.example._Do.auth.service.SecurityStampEventPublisher;
+import com.example._Do.auth.service.SecurityStampService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration of Redis pub/sub subscriptions used to keep per-instance caches in sync.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisMessagingConfig {
+
+    /**
+     * Subscribes to token revocations and security stamp rotations published by other instances.
+     *
+     * @param connectionFactory The Redis connection factory auto-configured by Spring Boot.
+     * @param jwtBlacklistService The listener maintaining the local revocation filter.
+     * @param securityStampService The service whose cached stamps are evicted on rotation.
+     * @return The listener container managing the subscriptions.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            JwtBlacklistService jwtBlacklistService,
+            SecurityStampService securityStampService
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(jwtBlacklistService, new ChannelTopic(JwtBlacklistService.JWT_BLACKLIST_CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> securityStampService.evict(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8))),
+                new ChannelTopic(SecurityStampEventPublisher.SECURITY_STAMP_CHANNEL));
+        return container;
+    }
+}
@@ -1,25 +1,44 @@
 package com.example._Do.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+
 /**
  * Global configuration class for REST client instances.
  */
 @Configuration
+@EnableConfigurationProperties(GeminiClientProperties.class)
 public class RestClientConfig {
 
     /**
-     * Creates and configures a default {@link RestClient} bean.
-     * This client is primarily used by services (e.g., AiTaskService) to perform
-     * outbound HTTP requests to external APIs like Google Gemini.
+     * Creates the {@link RestClient} used for outbound requests to Google Gemini.
+     * <p>
+     * Backed by the JDK {@link HttpClient}, which keeps connections alive between calls and negotiates HTTP/2,
+     * multiplexing concurrent calls over one connection. Connect and read timeouts keep a slow Gemini response
+     * from holding a worker indefinitely; retries, the bulkhead and the circuit breaker live in
+     * {@link com.example._Do.task.client.GeminiClient}.
+     * </p>
      *
      * @return a pre-configured {@link RestClient} instance
      */
     @Bean
-    public RestClient restClient() {
-        return RestClient.create();
+    public RestClient geminiRestClient(GeminiClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
     }
 
 }
@@ -3,6 +3,7 @@ package com.example._Do.config;
 import com.example._Do.auth.filter;
 import com.example._Do.auth.service.LogoutService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -84,7 +85,12 @@ public class SecurityConfig {
 
                 // Configure URL Authorization
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches resume a request that was authorized on its way in, e.g. when an SSE stream
+                        // completes; the JWT filter does not run again for them. Error dispatches render the error page.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Session management under /auth that needs a logged-in user
+                        .requestMatchers("/api/v1/auth/logout-all").authenticated()
                         // Whitelist: Allow public access to specific endpoints without authentication
                         .requestMatchers(
                                 "/api/v1/auth/**",               // Login & Register endpoints
@@ -100,6 +106,10 @@ public class SecurityConfig {
                                 "/swagger-ui.html"
                         ).permitAll()
 
+                        // Operational endpoints
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Blacklist: All other requests must be authenticated
                         .anyRequest().authenticated()
                 )
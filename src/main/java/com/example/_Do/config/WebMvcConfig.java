@@ -9,6 +9,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Configuration to register the RateLimitingInterceptor into the Spring MVC pipeline.
+ * Which routes are limited, and how, is decided by the configured rate limit policies.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -20,7 +21,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(rateLimitingInterceptor)
-                .addPathPatterns("/api/v1/auth/**");
+                .addPathPatterns(RateLimitingInterceptor.INTERCEPTED_PATH_PATTERN);
     }
 
 }
@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an AI generation job cannot be queued because
+ * every worker is busy and the job queue is full, or when no more job event streams can be opened.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiJobRejectedException extends RuntimeException{
+    public AiJobRejectedException(String message){
+        super(message);
+    }
+}
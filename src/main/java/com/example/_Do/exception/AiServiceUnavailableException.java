@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the AI model cannot be called, because its circuit breaker
+ * is open, every outbound slot is busy, or it kept answering 429/503 after retries.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiServiceUnavailableException extends RuntimeException{
+    public AiServiceUnavailableException(String message){
+        super(message);
+    }
+}
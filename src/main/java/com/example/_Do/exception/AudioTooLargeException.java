@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an uploaded voice note exceeds the configured
+ * maximum audio size.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class AudioTooLargeException extends RuntimeException{
+    public AudioTooLargeException(String message){
+        super(message);
+    }
+}
@@ -5,11 +5,13 @@ import com.example._Do.user.exception.UserAlreadyExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
@@ -67,6 +69,38 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles malformed or tampered pagination cursors.
+     * <p>
+     * Returns a 400 Bad Request status code.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidCursorException}.
+     * @param request The HTTP request that triggered the exception.
+     * @return A {@link ResponseEntity} containing the structured error details.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles group invitations that cannot be sent to the requested user.
+     * <p>
+     * Returns a 400 Bad Request status code with the rejection reason.
+     * </p>
+     *
+     * @param ex      The captured {@link InvalidInvitationException}.
+     * @param request The HTTP request that triggered the exception.
+     * @return A {@link ResponseEntity} containing the structured error details.
+     */
+    @ExceptionHandler(InvalidInvitationException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidInvitation(InvalidInvitationException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Fallback handler for any unexpected exceptions not covered by specific handlers.
      * <p>
@@ -116,6 +150,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Handles requests whose token turned out to be revoked while their rate limit was checked.
+     * <p>
+     * Returns a 401 Unauthorized status code, as if the token had been rejected by the authentication filter.
+     * </p>
+     *
+     * @param ex      The captured {@link TokenRevokedException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 401 error details.
+     */
+    @ExceptionHandler(TokenRevokedException.class)
+    public ResponseEntity<ErrorResponse> handleTokenRevoked(TokenRevokedException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.UNAUTHORIZED, request);
+        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Handles cases where the rate limit is exceeded.
      * <p>
@@ -131,4 +181,56 @@ public class GlobalExceptionHandler {
         ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS, request);
         return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles logins and registrations rejected because the password hashing executor is saturated.
+     * <p>
+     * Returns a 503 Service Unavailable status code with a {@code Retry-After} header.
+     * </p>
+     *
+     * @param ex      The captured {@link PasswordHashingUnavailableException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 503 error details.
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /**
+     * Handles voice notes rejected because the AI job queue is full.
+     * <p>
+     * Returns a 503 Service Unavailable status code with a {@code Retry-After} header.
+     * </p>
+     *
+     * @param ex      The captured {@link AiJobRejectedException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 503 error details.
+     */
+    @ExceptionHandler(AiJobRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAiJobRejected(AiJobRejectedException ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(error);
+    }
+
+    /**
+     * Handles uploads above the configured audio or multipart size limits.
+     * <p>
+     * Returns a 413 Payload Too Large status code.
+     * </p>
+     *
+     * @param ex      The captured {@link AudioTooLargeException} or {@link MaxUploadSizeExceededException}.
+     * @param request The HTTP request.
+     * @return A {@link ResponseEntity} containing the structured 413 error details.
+     */
+    @ExceptionHandler({AudioTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<ErrorResponse> handlePayloadTooLarge(Exception ex, HttpServletRequest request) {
+        ErrorResponse error = errorResponseMapper.mapToErrorResponse(ex, HttpStatus.PAYLOAD_TOO_LARGE, request);
+        return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a group invitation cannot be sent to the requested user
+ * (e.g., the user invites themselves, is already a member or already invited).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidInvitationException extends RuntimeException{
+    public InvalidInvitationException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a voice note is empty or contains no audible speech,
+ * so it is not worth sending to the AI model.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class NoSpeechDetectedException extends RuntimeException{
+    public NoSpeechDetectedException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example._Do.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request carries a token that has been revoked
+ * (e.g., after a logout) and the revocation was only detected by the rate limiter.
+ */
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class TokenRevokedException extends RuntimeException{
+    public TokenRevokedException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example._Do.group.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a group together with its owner and aggregated counters.
+ * <p>
+ * Produced by a single query for all groups of a user, so listing groups does not
+ * need additional queries per group.
+ * </p>
+ */
+public record GroupSummary(
+        Long id,
+        String name,
+        String description,
+        LocalDateTime createdAt,
+        Long ownerId,
+        String ownerFirstName,
+        String ownerLastName,
+        Integer memberCount,
+        Long pendingTaskCount
+) {
+}
@@ -3,6 +3,7 @@ package com.example._Do.group.entity;
 import com.example._Do.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -29,6 +30,22 @@ public class Group {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
+    /**
+     * Number of members, excluding the owner.
+     * Maintained with atomic updates by the membership write paths, never written through the entity.
+     */
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int memberCount;
+
+    /**
+     * Number of tasks of the group that are not completed.
+     * Maintained with atomic updates by the task write paths, never written through the entity.
+     */
+    @Column(name = "pending_task_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long pendingTaskCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -2,6 +2,8 @@ package com.example._Do.group.repository;
 
 import com.example._Do.group.entity.GroupMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +15,13 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
     List<GroupMember> findAllByGroupId(Long groupId);
 
     boolean existsByGroupIdAndUserId(Long groupId, Long userId);
+
+    /**
+     * Retrieves all memberships of a user with their permissions fetched in the same statement.
+     *
+     * @param userId The ID of the user.
+     * @return The memberships of the user.
+     */
+    @Query("SELECT DISTINCT m FROM GroupMember m LEFT JOIN FETCH m.permissions WHERE m.user.id = :userId")
+    List<GroupMember> findAllWithPermissionsByUserId(@Param("userId") Long userId);
 }
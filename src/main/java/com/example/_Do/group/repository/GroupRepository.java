@@ -1,19 +1,116 @@
 package com.example._Do.group.repository;
 
+import com.example._Do.group.dto.GroupSummary;
 import com.example._Do.group.entity.Group;
-import com.example._Do.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
+    /**
+     * Retrieves the IDs of every group the user owns or belongs to.
+     * <p>
+     * Each half of the union is a lookup on an index of its own ({@code groups.owner_id},
+     * {@code group_members.user_id}), so the cost depends on the user's groups only.
+     * </p>
+     *
+     * @param userId The ID of the user.
+     * @return The IDs of the user's groups.
+     */
     @Query("""
-            SELECT DISTINCT g FROM Group g
-            WHERE g.owner = :user
-               OR EXISTS (SELECT m FROM GroupMember m WHERE m.group = g AND m.user = :user)
+            SELECT g.id FROM Group g WHERE g.owner.id = :userId
+            UNION
+            SELECT m.group.id FROM GroupMember m WHERE m.user.id = :userId
             """)
-    List<Group> findAllByOwnerOrMember(@Param("user") User user);
+    List<Long> findIdsByOwnerOrMember(@Param("userId") Long userId);
+
+    /**
+     * Retrieves every group the user owns or belongs to, with owner name, member count
+     * (excluding the owner) and pending task count, in a single statement.
+     * The counters are read from the denormalized columns of the group.
+     *
+     * @param userId The ID of the user.
+     * @return One summary per group.
+     */
+    @Query("""
+            SELECT new com.example._Do.group.dto.GroupSummary(
+                g.id, g.name, g.description, g.createdAt, o.id, o.firstName, o.lastName,
+                g.memberCount, g.pendingTaskCount)
+            FROM Group g
+            JOIN g.owner o
+            WHERE o.id = :userId
+               OR EXISTS (SELECT m FROM GroupMember m WHERE m.group = g AND m.user.id = :userId)
+            """)
+    List<GroupSummary> findSummariesByOwnerOrMember(@Param("userId") Long userId);
+
+    /**
+     * Atomically adds {@code delta} to the member counter of a group.
+     *
+     * @param groupId The ID of the group.
+     * @param delta   The change (+1 on join, -1 on removal).
+     */
+    @Modifying
+    @Query(value = "UPDATE groups SET member_count = member_count + :delta WHERE id = :groupId", nativeQuery = true)
+    void adjustMemberCount(@Param("groupId") Long groupId, @Param("delta") int delta);
+
+    /**
+     * Atomically adds {@code delta} to the pending task counter of a group.
+     *
+     * @param groupId The ID of the group.
+     * @param delta   The change (+1 when a pending task appears, -1 when it is completed or deleted).
+     */
+    @Modifying
+    @Query(value = "UPDATE groups SET pending_task_count = pending_task_count + :delta WHERE id = :groupId", nativeQuery = true)
+    void adjustPendingTaskCount(@Param("groupId") Long groupId, @Param("delta") long delta);
+
+    /**
+     * Finds the groups whose stored counters differ from the actual data.
+     * <p>
+     * Only a candidate list: a write in flight may show up as drift here. Each candidate is
+     * recounted under its row lock by {@link #repairCounters(Long)}.
+     * </p>
+     *
+     * @return The IDs of the groups to repair.
+     */
+    @Query(value = """
+            SELECT g.id FROM groups g
+            WHERE g.member_count <> (SELECT COUNT(*) FROM group_members m WHERE m.group_id = g.id)
+               OR g.pending_task_count <> (SELECT COUNT(*) FROM tasks t WHERE t.group_id = g.id AND t.completed = FALSE)
+            """, nativeQuery = true)
+    List<Long> findIdsWithDriftedCounters();
+
+    /**
+     * Locks the row of a group until the end of the transaction, waiting for concurrent counter deltas to commit.
+     *
+     * @param groupId The ID of the group.
+     * @return The ID, or empty if the group no longer exists.
+     */
+    @Query(value = "SELECT id FROM groups WHERE id = :groupId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("groupId") Long groupId);
+
+    /**
+     * Recomputes the counters of a group if they drifted from the actual data.
+     * <p>
+     * Must run after {@link #lockById(Long)} in the same transaction: the counts are taken from the
+     * snapshot of this statement, so a delta committed while it waited for the row would be overwritten.
+     * </p>
+     *
+     * @param groupId The ID of the group.
+     * @return 1 if the counters were corrected, 0 otherwise.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE groups
+            SET member_count       = (SELECT COUNT(*) FROM group_members m WHERE m.group_id = groups.id),
+                pending_task_count = (SELECT COUNT(*) FROM tasks t WHERE t.group_id = groups.id AND t.completed = FALSE)
+            WHERE id = :groupId
+              AND (member_count <> (SELECT COUNT(*) FROM group_members m WHERE m.group_id = groups.id)
+                   OR pending_task_count <> (SELECT COUNT(*) FROM tasks t WHERE t.group_id = groups.id AND t.completed = FALSE))
+            """, nativeQuery = true)
+    int repairCounters(@Param("groupId") Long groupId);
 }
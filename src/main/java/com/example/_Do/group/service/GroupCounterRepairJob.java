@@ -0,0 +1,41 @@
+package com.example._Do.group.service;
+
+import com.example._Do.group.repository.GroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically reconciles the denormalized member and pending task counters of groups
+ * with the actual data, correcting any drift left by failed or out-of-band writes.
+ * <p>
+ * Each drifted group is repaired in a transaction of its own that first locks the group row.
+ * Counter deltas update the same row, so the recount only starts once every delta in flight
+ * has committed, and later deltas wait for the repair: none of them can be overwritten.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GroupCounterRepairJob {
+
+    private final GroupRepository groupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${application.groups.counter-repair-cron:0 30 3 * * *}")
+    public void repairCounters() {
+        int repaired = 0;
+        for (Long groupId : groupRepository.findIdsWithDriftedCounters()) {
+            Integer updated = transactionTemplate.execute(status -> {
+                groupRepository.lockById(groupId);
+                return groupRepository.repairCounters(groupId);
+            });
+            repaired += updated != null ? updated : 0;
+        }
+        if (repaired > 0) {
+            log.warn("Repaired drifted counters of {} groups", repaired);
+        }
+    }
+}
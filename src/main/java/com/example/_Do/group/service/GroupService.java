@@ -1,24 +1,26 @@
 package com.example._Do.group.service;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.auth.service.CurrentUserProvider;
+import com.example._Do.exception.InvalidInvitationException;
 import com.example._Do.group.dto.*;
 import com.example._Do.group.entity.*;
 import com.example._Do.group.repository.GroupInvitationRepository;
 import com.example._Do.group.repository.GroupMemberRepository;
 import com.example._Do.group.repository.GroupRepository;
-import com.example._Do.task.repository.TaskRepository;
 import com.example._Do.user.entity.User;
 import com.example._Do.user.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,76 +31,76 @@ public class GroupService {
     private final GroupMemberRepository groupMemberRepository;
     private final GroupInvitationRepository groupInvitationRepository;
     private final UserRepository userRepository;
-    private final TaskRepository taskRepository;
+    private final CurrentUserProvider currentUserProvider;
 
     @Transactional
     public GroupResponse createGroup(GroupRequest request) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
 
         Group group = Group.builder()
                 .name(request.getName())
                 .description(request.getDescription())
-                .owner(currentUser)
+                .owner(userRepository.getReferenceById(currentUser.id()))
                 .build();
 
         Group saved = groupRepository.save(group);
-        log.info("User {} created group '{}'", currentUser.getId(), saved.getName());
+        log.info("User {} created group '{}'", currentUser.id(), saved.getName());
 
         return toGroupResponse(saved, currentUser, 1, 0); // 1 = owner only
     }
 
     @Transactional
     public GroupResponse updateGroup(Long groupId, GroupRequest request) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Group group = getGroupOrThrow(groupId);
         requireOwner(group, currentUser);
 
         group.setName(request.getName());
         group.setDescription(request.getDescription());
         Group saved = groupRepository.save(group);
-        log.info("User {} updated group {}", currentUser.getId(), groupId);
+        log.info("User {} updated group {}", currentUser.id(), groupId);
 
-        int memberCount = groupMemberRepository.findAllByGroupId(groupId).size() + 1; // +1 for owner
-        long pendingTaskCount = taskRepository.countByGroupIdAndCompleted(groupId, false);
-        return toGroupResponse(saved, currentUser, memberCount, pendingTaskCount);
+        return toGroupResponse(saved, currentUser, saved.getMemberCount() + 1, saved.getPendingTaskCount()); // +1 for owner
     }
 
     @Transactional(readOnly = true)
     public List<GroupResponse> getMyGroups() {
-        User currentUser = getCurrentUser();
-        List<Group> groups = groupRepository.findAllByOwnerOrMember(currentUser);
-
-        return groups.stream().map(g -> {
-            int memberCount = groupMemberRepository.findAllByGroupId(g.getId()).size() + 1; // +1 for owner
-            long pendingTaskCount = taskRepository.countByGroupIdAndCompleted(g.getId(), false);
-            return toGroupResponse(g, currentUser, memberCount, pendingTaskCount);
-        }).toList();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+
+        // Groups with owner and counters in one query, the caller's permissions in another
+        Map<Long, Set<GroupPermission>> permissionsByGroup = groupMemberRepository
+                .findAllWithPermissionsByUserId(currentUser.id()).stream()
+                .collect(Collectors.toMap(m -> m.getGroup().getId(), GroupMember::getPermissions));
+
+        return groupRepository.findSummariesByOwnerOrMember(currentUser.id()).stream()
+                .map(summary -> toGroupResponse(summary, currentUser, permissionsByGroup))
+                .toList();
     }
 
     @Transactional
     public void inviteMember(Long groupId, GroupInviteRequest request) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Group group = getGroupOrThrow(groupId);
         requireOwnerOrPermission(group, currentUser, GroupPermission.CAN_INVITE);
 
         User invitee = userRepository.findByEmail(request.getInviteeEmail())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + request.getInviteeEmail()));
 
-        if (invitee.getId().equals(currentUser.getId())) {
-            throw new IllegalArgumentException("Cannot invite yourself");
+        if (invitee.getId().equals(currentUser.id())) {
+            throw new InvalidInvitationException("Cannot invite yourself");
         }
 
         if (groupMemberRepository.existsByGroupIdAndUserId(groupId, invitee.getId())) {
-            throw new IllegalArgumentException("User is already a member of this group");
+            throw new InvalidInvitationException("User is already a member of this group");
         }
 
         if (groupInvitationRepository.existsByGroupIdAndInviteeIdAndStatus(groupId, invitee.getId(), InvitationStatus.PENDING)) {
-            throw new IllegalArgumentException("User already has a pending invitation to this group");
+            throw new InvalidInvitationException("User already has a pending invitation to this group");
         }
 
         GroupInvitation invitation = GroupInvitation.builder()
                 .group(group)
-                .inviter(currentUser)
+                .inviter(userRepository.getReferenceById(currentUser.id()))
                 .invitee(invitee)
                 .status(InvitationStatus.PENDING)
                 .build();
@@ -115,7 +117,7 @@ public class GroupService {
 
     @Transactional
     public void updateMemberPermissions(Long groupId, Long userId, GroupUpdatePermissionsRequest request) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Group group = getGroupOrThrow(groupId);
         requireOwnerOrPermission(group, currentUser, GroupPermission.CAN_MANAGE);
 
@@ -133,7 +135,7 @@ public class GroupService {
 
     @Transactional
     public void removeMember(Long groupId, Long userId) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Group group = getGroupOrThrow(groupId);
         requireOwner(group, currentUser);
 
@@ -141,12 +143,13 @@ public class GroupService {
                 .orElseThrow(() -> new EntityNotFoundException("Member not found in this group"));
 
         groupMemberRepository.delete(member);
+        groupRepository.adjustMemberCount(groupId, -1);
         log.info("Removed user {} from group {}", userId, groupId);
     }
 
     @Transactional(readOnly = true)
     public List<GroupMemberResponse> getGroupMembers(Long groupId) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Group group = getGroupOrThrow(groupId);
         requireMemberOrOwner(group, currentUser);
 
@@ -176,7 +179,7 @@ public class GroupService {
 
     @Transactional
     public void deleteGroup(Long groupId) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Group group = getGroupOrThrow(groupId);
         requireOwner(group, currentUser);
 
@@ -189,9 +192,9 @@ public class GroupService {
 
     @Transactional(readOnly = true)
     public List<GroupInvitationResponse> getMyPendingInvitations() {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         return groupInvitationRepository
-                .findAllByInviteeAndStatus(currentUser, InvitationStatus.PENDING)
+                .findAllByInviteeAndStatus(userRepository.getReferenceById(currentUser.id()), InvitationStatus.PENDING)
                 .stream()
                 .map(this::toInvitationResponse)
                 .toList();
@@ -199,8 +202,8 @@ public class GroupService {
 
     @Transactional
     public void acceptInvitation(Long invitationId) {
-        User currentUser = getCurrentUser();
-        GroupInvitation invitation = groupInvitationRepository.findByIdAndInvitee(invitationId, currentUser)
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        GroupInvitation invitation = groupInvitationRepository.findByIdAndInvitee(invitationId, userRepository.getReferenceById(currentUser.id()))
                 .orElseThrow(() -> new EntityNotFoundException("Invitation not found"));
 
         if (invitation.getStatus() != InvitationStatus.PENDING) {
@@ -212,17 +215,18 @@ public class GroupService {
 
         GroupMember member = GroupMember.builder()
                 .group(invitation.getGroup())
-                .user(currentUser)
+                .user(userRepository.getReferenceById(currentUser.id()))
                 .permissions(Set.of())
                 .build();
         groupMemberRepository.save(member);
-        log.info("User {} accepted invitation {} to group {}", currentUser.getId(), invitationId, invitation.getGroup().getId());
+        groupRepository.adjustMemberCount(invitation.getGroup().getId(), 1);
+        log.info("User {} accepted invitation {} to group {}", currentUser.id(), invitationId, invitation.getGroup().getId());
     }
 
     @Transactional
     public void declineInvitation(Long invitationId) {
-        User currentUser = getCurrentUser();
-        GroupInvitation invitation = groupInvitationRepository.findByIdAndInvitee(invitationId, currentUser)
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        GroupInvitation invitation = groupInvitationRepository.findByIdAndInvitee(invitationId, userRepository.getReferenceById(currentUser.id()))
                 .orElseThrow(() -> new EntityNotFoundException("Invitation not found"));
 
         if (invitation.getStatus() != InvitationStatus.PENDING) {
@@ -231,31 +235,25 @@ public class GroupService {
 
         invitation.setStatus(InvitationStatus.DECLINED);
         groupInvitationRepository.save(invitation);
-        log.info("User {} declined invitation {}", currentUser.getId(), invitationId);
+        log.info("User {} declined invitation {}", currentUser.id(), invitationId);
     }
 
     // --- helpers ---
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-    }
-
     private Group getGroupOrThrow(Long groupId) {
         return groupRepository.findById(groupId)
                 .orElseThrow(() -> new EntityNotFoundException("Group not found"));
     }
 
-    private void requireOwner(Group group, User user) {
-        if (!group.getOwner().getId().equals(user.getId())) {
+    private void requireOwner(Group group, AuthenticatedUser user) {
+        if (!group.getOwner().getId().equals(user.id())) {
             throw new AccessDeniedException("Only the group owner can perform this action");
         }
     }
 
-    private void requireOwnerOrPermission(Group group, User user, GroupPermission permission) {
-        if (group.getOwner().getId().equals(user.getId())) return;
-        boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(group.getId(), user.getId())
+    private void requireOwnerOrPermission(Group group, AuthenticatedUser user, GroupPermission permission) {
+        if (group.getOwner().getId().equals(user.id())) return;
+        boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(group.getId(), user.id())
                 .map(m -> m.getPermissions().contains(permission))
                 .orElse(false);
         if (!hasPerm) {
@@ -263,19 +261,19 @@ public class GroupService {
         }
     }
 
-    private void requireMemberOrOwner(Group group, User user) {
-        boolean isOwner = group.getOwner().getId().equals(user.getId());
-        boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(group.getId(), user.getId());
+    private void requireMemberOrOwner(Group group, AuthenticatedUser user) {
+        boolean isOwner = group.getOwner().getId().equals(user.id());
+        boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(group.getId(), user.id());
         if (!isOwner && !isMember) {
             throw new AccessDeniedException("Access denied to this group");
         }
     }
 
-    private GroupResponse toGroupResponse(Group group, User currentUser, int memberCount, long pendingTaskCount) {
-        boolean isOwner = group.getOwner().getId().equals(currentUser.getId());
+    private GroupResponse toGroupResponse(Group group, AuthenticatedUser currentUser, int memberCount, long pendingTaskCount) {
+        boolean isOwner = group.getOwner().getId().equals(currentUser.id());
         Set<GroupPermission> myPermissions = isOwner
                 ? Set.of(GroupPermission.values())
-                : groupMemberRepository.findByGroupIdAndUserId(group.getId(), currentUser.getId())
+                : groupMemberRepository.findByGroupIdAndUserId(group.getId(), currentUser.id())
                         .map(GroupMember::getPermissions)
                         .orElse(Set.of());
 
@@ -283,7 +281,9 @@ public class GroupService {
                 .id(group.getId())
                 .name(group.getName())
                 .description(group.getDescription())
-                .ownerName(group.getOwner().getFirstName() + " " + group.getOwner().getLastName())
+                .ownerName(isOwner
+                        ? currentUser.displayName()
+                        : group.getOwner().getFirstName() + " " + group.getOwner().getLastName())
                 .memberCount(memberCount)
                 .pendingTaskCount(pendingTaskCount)
                 .myPermissions(myPermissions)
@@ -292,6 +292,26 @@ public class GroupService {
                 .build();
     }
 
+    private GroupResponse toGroupResponse(GroupSummary summary, AuthenticatedUser currentUser,
+                                          Map<Long, Set<GroupPermission>> permissionsByGroup) {
+        boolean isOwner = summary.ownerId().equals(currentUser.id());
+        Set<GroupPermission> myPermissions = isOwner
+                ? Set.of(GroupPermission.values())
+                : permissionsByGroup.getOrDefault(summary.id(), Set.of());
+
+        return GroupResponse.builder()
+                .id(summary.id())
+                .name(summary.name())
+                .description(summary.description())
+                .ownerName(summary.ownerFirstName() + " " + summary.ownerLastName())
+                .memberCount(summary.memberCount() + 1) // +1 for owner
+                .pendingTaskCount(summary.pendingTaskCount())
+                .myPermissions(myPermissions)
+                .createdAt(summary.createdAt())
+                .isOwner(isOwner)
+                .build();
+    }
+
     private GroupInvitationResponse toInvitationResponse(GroupInvitation invitation) {
         return GroupInvitationResponse.builder()
                 .id(invitation.getId())
@@ -0,0 +1,310 @@
+package com.example._Do.task.audio;
+
+import com.example._Do.exception.NoSpeechDetectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Prepares voice notes for the AI model.
+ * <p>
+ * Uncompressed uploads (WAV, AIFF, AU) are downmixed to mono, resampled to {@code sample-rate} and trimmed of
+ * leading and trailing silence, then written as 16-bit PCM WAV. Speech extraction needs nothing more, and a typical
+ * 44.1 kHz stereo recording shrinks by a factor of five or more. Clips without enough audible audio are rejected with
+ * {@link NoSpeechDetectedException} before any API call is made.
+ * </p>
+ * <p>
+ * Compressed formats (MP3, OGG, FLAC, AAC, WebM) cannot be decoded with the JDK; they are passed through unchanged,
+ * declared with their detected MIME type.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AudioNormalizer {
+
+    static final String WAV = "audio/wav";
+    private static final int FRAME_MILLIS = 20;
+    private static final int WAV_HEADER_BYTES = 44;
+    private static final int BYTES_PER_SAMPLE = 2;
+
+    private final int sampleRate;
+    private final double silenceThreshold;
+    private final Duration minSpeech;
+    private final Duration padding;
+
+    public AudioNormalizer(
+            @Value("${application.ai.audio.sample-rate:16000}") int sampleRate,
+            @Value("${application.ai.audio.silence-threshold-dbfs:-45}") double silenceThresholdDbfs,
+            @Value("${application.ai.audio.min-speech:PT0.3S}") Duration minSpeech,
+            @Value("${application.ai.audio.padding:PT0.2S}") Duration padding
+    ) {
+        this.sampleRate = sampleRate;
+        this.silenceThreshold = Math.pow(10, silenceThresholdDbfs / 20);
+        this.minSpeech = minSpeech;
+        this.padding = padding;
+    }
+
+    /**
+     * @param audio The uploaded audio.
+     * @return The audio to send, either a normalized copy or the original file.
+     * @throws NoSpeechDetectedException if the clip is empty or near-silent.
+     */
+    public NormalizedAudio normalize(Path audio) throws IOException {
+        if (Files.size(audio) == 0) {
+            throw new NoSpeechDetectedException("The voice note is empty.");
+        }
+
+        AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(audio.toFile());
+        } catch (UnsupportedAudioFileException e) {
+            return passThrough(audio);
+        }
+
+        try (source) {
+            AudioFormat format = source.getFormat();
+            AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+            if (format.getSampleRate() <= 0 || !AudioSystem.isConversionSupported(pcm, format)) {
+                return passThrough(audio);
+            }
+
+            Path output = Files.createTempFile("ai-audio-", ".wav");
+            try (AudioInputStream samples = format.matches(pcm) ? source : AudioSystem.getAudioInputStream(pcm, source)) {
+                convert(samples, output);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(output);
+                throw e;
+            }
+            log.info("Normalized voice note from {} ({} bytes) to {} Hz mono ({} bytes)",
+                    format, Files.size(audio), sampleRate, Files.size(output));
+            return new NormalizedAudio(output, WAV, true);
+        }
+    }
+
+    /**
+     * Streams the PCM input through downmix, resampling and silence detection, keeping only one frame in memory.
+     */
+    private void convert(AudioInputStream pcm, Path output) throws IOException {
+        int channels = pcm.getFormat().getChannels();
+        float sourceRate = pcm.getFormat().getSampleRate();
+        // Never upsample: it only adds bytes
+        int outputRate = (int) Math.min(sourceRate, sampleRate);
+        double ratio = sourceRate / outputRate;
+        int frameSamples = Math.max(1, outputRate * FRAME_MILLIS / 1000);
+
+        long dataBytes;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            out.write(new byte[WAV_HEADER_BYTES]);
+            SilenceTrimmingWriter writer = new SilenceTrimmingWriter(out, (int) (padding.toMillis() / FRAME_MILLIS));
+
+            byte[] buffer = new byte[4096 * channels * BYTES_PER_SAMPLE];
+            float[] frame = new float[frameSamples];
+            int frameLength = 0;
+            double sum = 0;
+            int count = 0;
+            long position = 0;
+            double nextBoundary = ratio;
+
+            int read;
+            while ((read = readFully(pcm, buffer)) > 0) {
+                for (int offset = 0; offset + channels * BYTES_PER_SAMPLE <= read; offset += channels * BYTES_PER_SAMPLE) {
+                    double mono = 0;
+                    for (int channel = 0; channel < channels; channel++) {
+                        int i = offset + channel * BYTES_PER_SAMPLE;
+                        mono += (short) ((buffer[i] & 0xFF) | (buffer[i + 1] << 8)) / 32768.0;
+                    }
+                    // Averaging every input sample of an output period acts as the anti-aliasing low-pass
+                    sum += mono / channels;
+                    count++;
+                    if (++position >= nextBoundary) {
+                        frame[frameLength++] = (float) (sum / count);
+                        sum = 0;
+                        count = 0;
+                        nextBoundary += ratio;
+                        if (frameLength == frameSamples) {
+                            writer.write(frame, frameLength, isVoiced(frame, frameLength));
+                            frameLength = 0;
+                        }
+                    }
+                }
+            }
+            if (count > 0) {
+                frame[frameLength++] = (float) (sum / count);
+            }
+            if (frameLength > 0) {
+                writer.write(frame, frameLength, isVoiced(frame, frameLength));
+            }
+
+            if (writer.voicedFrames() * FRAME_MILLIS < minSpeech.toMillis()) {
+                throw new NoSpeechDetectedException("No speech was detected in the voice note.");
+            }
+            dataBytes = writer.trimmedLength((long) writer.paddingFrames() * frameSamples * BYTES_PER_SAMPLE);
+        }
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            channel.truncate(WAV_HEADER_BYTES + dataBytes);
+            channel.write(wavHeader(outputRate, dataBytes), 0);
+        }
+    }
+
+    private boolean isVoiced(float[] frame, int length) {
+        double energy = 0;
+        for (int i = 0; i < length; i++) {
+            energy += frame[i] * frame[i];
+        }
+        return Math.sqrt(energy / length) >= silenceThreshold;
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        int n;
+        while (total < buffer.length && (n = in.read(buffer, total, buffer.length - total)) > 0) {
+            total += n;
+        }
+        return total;
+    }
+
+    private static ByteBuffer wavHeader(int sampleRate, long dataBytes) {
+        ByteBuffer header = ByteBuffer.allocate(WAV_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt((int) (36 + dataBytes));
+        header.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        header.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16)
+                .putShort((short) 1)                          // PCM
+                .putShort((short) 1)                          // mono
+                .putInt(sampleRate)
+                .putInt(sampleRate * BYTES_PER_SAMPLE)        // byte rate
+                .putShort((short) BYTES_PER_SAMPLE)           // block align
+                .putShort((short) (BYTES_PER_SAMPLE * 8));    // bits per sample
+        header.put("data".getBytes(StandardCharsets.US_ASCII)).putInt((int) dataBytes);
+        return header.flip();
+    }
+
+    private static NormalizedAudio passThrough(Path audio) throws IOException {
+        String mimeType = detectMimeType(audio);
+        log.info("Voice note format {} cannot be decoded locally, sending it unchanged", mimeType);
+        return new NormalizedAudio(audio, mimeType, false);
+    }
+
+    /**
+     * Detects the container format from its magic bytes; unknown formats keep the previous {@code audio/wav} default.
+     */
+    static String detectMimeType(Path audio) throws IOException {
+        byte[] head = new byte[12];
+        int length;
+        try (InputStream in = Files.newInputStream(audio)) {
+            length = readFully(in, head);
+        }
+        String ascii = new String(head, 0, length, StandardCharsets.ISO_8859_1);
+
+        if (ascii.startsWith("RIFF") && ascii.startsWith("WAVE", 8)) {
+            return WAV;
+        }
+        if (ascii.startsWith("FORM") && (ascii.startsWith("AIFF", 8) || ascii.startsWith("AIFC", 8))) {
+            return "audio/aiff";
+        }
+        if (ascii.startsWith("ID3") || (length > 1 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xE0) == 0xE0)) {
+            return "audio/mp3";
+        }
+        if (ascii.startsWith("OggS")) {
+            return "audio/ogg";
+        }
+        if (ascii.startsWith("fLaC")) {
+            return "audio/flac";
+        }
+        if (ascii.startsWith("ftyp", 4)) {
+            return "audio/aac";
+        }
+        if (length >= 4 && Arrays.equals(Arrays.copyOf(head, 4), new byte[]{0x1A, 0x45, (byte) 0xDF, (byte) 0xA3})) {
+            return "audio/webm";
+        }
+        return WAV;
+    }
+
+    /**
+     * Writes 16-bit frames, dropping silence before the first voiced frame (except for the padding)
+     * and remembering where the last voiced frame ended so trailing silence can be cut afterwards.
+     */
+    private static final class SilenceTrimmingWriter {
+
+        private final OutputStream out;
+        private final int paddingFrames;
+        private final Deque<byte[]> leadIn = new ArrayDeque<>();
+
+        private boolean speechStarted;
+        private long written;
+        private long speechEnd;
+        private int voicedFrames;
+
+        private SilenceTrimmingWriter(OutputStream out, int paddingFrames) {
+            this.out = out;
+            this.paddingFrames = paddingFrames;
+        }
+
+        void write(float[] frame, int length, boolean voiced) throws IOException {
+            byte[] bytes = new byte[length * BYTES_PER_SAMPLE];
+            for (int i = 0; i < length; i++) {
+                int sample = (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(frame[i] * 32768.0)));
+                bytes[i * 2] = (byte) sample;
+                bytes[i * 2 + 1] = (byte) (sample >> 8);
+            }
+
+            if (!speechStarted) {
+                if (!voiced) {
+                    leadIn.addLast(bytes);
+                    if (leadIn.size() > paddingFrames) {
+                        leadIn.removeFirst();
+                    }
+                    return;
+                }
+                speechStarted = true;
+                for (byte[] padded : leadIn) {
+                    append(padded);
+                }
+                leadIn.clear();
+            }
+
+            append(bytes);
+            if (voiced) {
+                voicedFrames++;
+                speechEnd = written;
+            }
+        }
+
+        int voicedFrames() {
+            return voicedFrames;
+        }
+
+        int paddingFrames() {
+            return paddingFrames;
+        }
+
+        long trimmedLength(long paddingBytes) {
+            return Math.min(written, speechEnd + paddingBytes);
+        }
+
+        private void append(byte[] bytes) throws IOException {
+            out.write(bytes);
+            written += bytes.length;
+        }
+    }
+}
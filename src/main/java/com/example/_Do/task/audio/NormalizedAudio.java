@@ -0,0 +1,17 @@
+package com.example._Do.task.audio;
+
+import java.nio.file.Path;
+
+/**
+ * Audio ready to be sent to the AI model.
+ *
+ * @param file      The audio file; a new temporary file when {@code converted}, otherwise the original upload.
+ * @param mimeType  The MIME type to declare for {@code file}.
+ * @param converted Whether {@code file} was created by the normalizer and must be deleted by the caller.
+ */
+public record NormalizedAudio(
+        Path file,
+        String mimeType,
+        boolean converted
+) {
+}
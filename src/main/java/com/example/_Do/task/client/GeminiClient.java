@@ -0,0 +1,197 @@
+package com.example._Do.task.client;
+
+import com.example._Do.common.resilience.CircuitBreaker;
+import com.example._Do.config.GeminiClientProperties;
+import com.example._Do.exception.AiServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resilient client for the Gemini {@code generateContent} endpoint.
+ * <p>
+ * Every call passes, in order, through:
+ * </p>
+ * <ul>
+ *     <li>a bulkhead capping concurrent outbound calls ({@code max-concurrent-calls}),</li>
+ *     <li>a {@link CircuitBreaker} that fails fast while Gemini is down or overloaded,</li>
+ *     <li>retries with full-jitter exponential backoff on 429 and 503.</li>
+ * </ul>
+ * <p>
+ * Calls that cannot be made fail with {@link AiServiceUnavailableException}. Client errors other than 429 are
+ * rethrown unchanged and do not count against the circuit, since Gemini did answer.
+ * </p>
+ * <p>
+ * The API key is sent in the {@code x-goog-api-key} header rather than the query string, so it does not end up in
+ * exception messages and logs that quote the request URI.
+ * </p>
+ */
+@Slf4j
+@Component
+public class GeminiClient implements MeterBinder {
+
+    static final String API_KEY_HEADER = "x-goog-api-key";
+
+    private final RestClient restClient;
+    private final GeminiClientProperties properties;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public GeminiClient(RestClient geminiRestClient, GeminiClientProperties properties) {
+        this.restClient = geminiRestClient;
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls(), true);
+        this.circuitBreaker = new CircuitBreaker("gemini",
+                properties.getCircuitBreaker().getFailureThreshold(),
+                properties.getCircuitBreaker().getOpenDuration());
+    }
+
+    /**
+     * Posts a {@code generateContent} request.
+     *
+     * @param uri    The endpoint, without credentials.
+     * @param apiKey The Gemini API key.
+     * @param body   The request body; it is written again for every retry.
+     * @return The raw JSON response.
+     * @throws AiServiceUnavailableException if Gemini cannot be called right now.
+     */
+    public String generateContent(String uri, String apiKey, StreamingHttpOutputMessage.Body body) {
+        acquire();
+        try {
+            return circuitBreaker.execute(
+                    () -> callWithRetry(uri, apiKey, body),
+                    () -> {
+                        throw new AiServiceUnavailableException("The AI service is temporarily unavailable. Please try again later.");
+                    },
+                    GeminiClient::isServiceFailure
+            );
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        circuitBreaker.bindTo(registry);
+        Gauge.builder("gemini.calls.active", bulkhead, b -> properties.getMaxConcurrentCalls() - b.availablePermits())
+                .description("Gemini calls in flight")
+                .register(registry);
+        FunctionCounter.builder("gemini.calls.retries", retries, AtomicLong::get)
+                .description("Gemini calls retried after 429 or 503")
+                .register(registry);
+        FunctionCounter.builder("gemini.calls.rejected", rejected, AtomicLong::get)
+                .description("Gemini calls rejected because every slot was busy")
+                .register(registry);
+    }
+
+    private String callWithRetry(String uri, String apiKey, StreamingHttpOutputMessage.Body body) {
+        GeminiClientProperties.Retry retry = properties.getRetry();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return restClient.post()
+                        .uri(uri)
+                        .header(API_KEY_HEADER, apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body)
+                        .retrieve()
+                        .body(String.class);
+            } catch (HttpStatusCodeException e) {
+                Duration backoff = isRetryable(e) && attempt < retry.getMaxAttempts() ? backoff(attempt, e) : null;
+                if (backoff == null) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                log.warn("Gemini answered {} (attempt {}/{}), retrying in {} ms",
+                        e.getStatusCode().value(), attempt, retry.getMaxAttempts(), backoff.toMillis());
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    /**
+     * Full jitter: a random delay up to the exponential backoff, so retrying clients spread out
+     * instead of hitting Gemini again in lockstep.
+     *
+     * @return The delay before the next attempt, or {@code null} if Gemini asked to wait longer than {@code max-backoff}.
+     */
+    private Duration backoff(int attempt, HttpStatusCodeException e) {
+        GeminiClientProperties.Retry retry = properties.getRetry();
+        long ceiling = Math.min(retry.getMaxBackoff().toMillis(), retry.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+
+        HttpHeaders headers = e.getResponseHeaders();
+        String retryAfter = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter != null) {
+            try {
+                long requested = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+                if (requested > retry.getMaxBackoff().toMillis()) {
+                    return null;
+                }
+                delay = Math.max(delay, requested);
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form; fall back to the computed backoff
+            }
+        }
+        return Duration.ofMillis(delay);
+    }
+
+    private void acquire() {
+        try {
+            if (bulkhead.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        throw new AiServiceUnavailableException("Too many AI requests are in progress. Please try again shortly.");
+    }
+
+    private static void sleep(Duration backoff, RuntimeException cause) {
+        try {
+            Thread.sleep(backoff.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static boolean isRetryable(HttpStatusCodeException e) {
+        return e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                || e.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Timeouts, connection errors, 5xx and exhausted 429 retries mean Gemini is unhealthy; anything else was an answer.
+     */
+    private static boolean isServiceFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        return e instanceof HttpStatusCodeException statusError
+                && (statusError.getStatusCode().is5xxServerError() || isRetryable(statusError));
+    }
+}
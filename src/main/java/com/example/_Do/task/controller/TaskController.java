@@ -1,9 +1,10 @@
 package com.example._Do.task.controller;
 
-import com.example._Do.task.dto.AiTaskResponse;
+import com.example._Do.task.dto.AiJobResponse;
 import com.example._Do.task.dto.TaskRequest;
 import com.example._Do.task.dto.TaskResponse;
-import com.example._Do.task.service.AiTaskService;
+import com.example._Do.task.dto.TaskSliceResponse;
+import com.example._Do.task.service.AiJobService;
 import com.example._Do.task.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,11 +16,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -37,7 +41,7 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
-    private final AiTaskService aiTaskService;
+    private final AiJobService aiJobService;
 
     /**
      * Creates a new task for the authenticated user.
@@ -82,6 +86,33 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getAllTasks(pageable));
     }
 
+    /**
+     * Retrieves tasks newest first with cursor (keyset) pagination.
+     * <p>
+     * Intended for infinite scrolling: every slice costs the same regardless of how deep the client
+     * has scrolled, and tasks created in the meantime never shift the following slices.
+     * </p>
+     *
+     * @param cursor  The nextCursor of the previous slice; omit for the first slice.
+     * @param size    Maximum number of tasks in the slice (1-100).
+     * @param groupId Optional group ID to restrict the slice to one group.
+     * @return A slice of tasks and the cursor of the next slice.
+     */
+    @GetMapping("/slice")
+    @Operation(
+            summary = "Get tasks (Cursor)",
+            description = "Retrieves tasks newest first. Pass the returned nextCursor to get the following slice. Pass groupId to get group tasks only."
+    )
+    @ApiResponse(responseCode = "200", description = "Slice of tasks retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<TaskSliceResponse> getTaskSlice(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long groupId
+    ) {
+        return ResponseEntity.ok(taskService.getTaskSlice(cursor, size, groupId));
+    }
+
     /**
      * Retrieves a specific task by its unique ID.
      *
@@ -142,9 +173,60 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Queues a voice note for AI task extraction.
+     *
+     * @param file The recorded audio.
+     * @return The queued job with a 202 ACCEPTED status and its polling URL in the {@code Location} header.
+     */
     @PostMapping("/ai-generate")
-    public ResponseEntity<AiTaskResponse> generateTaskFromVoice(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(aiTaskService.processVoiceTask(file));
+    @Operation(
+            summary = "Generate a task from a voice note",
+            description = "Queues the audio for AI processing. Poll the returned job, or subscribe to its events, to get the detected task."
+    )
+    @ApiResponse(responseCode = "202", description = "Voice note accepted for processing")
+    @ApiResponse(responseCode = "429", description = "Too many voice notes in progress for this user")
+    @ApiResponse(responseCode = "503", description = "The processing queue is full")
+    public ResponseEntity<AiJobResponse> generateTaskFromVoice(@RequestParam("file") MultipartFile file) {
+        AiJobResponse job = aiJobService.submit(file);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/tasks/ai-jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Retrieves the state of an AI generation job.
+     *
+     * @param jobId The ID returned when the voice note was submitted.
+     * @return The job state, including the detected task once completed.
+     */
+    @GetMapping("/ai-jobs/{jobId}")
+    @Operation(
+            summary = "Get AI job status",
+            description = "Returns the status of a voice-to-task job and, once completed, the detected task."
+    )
+    @ApiResponse(responseCode = "200", description = "Job state retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Job not found, expired, or owned by another user")
+    public ResponseEntity<AiJobResponse> getAiJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(aiJobService.getJob(jobId));
+    }
+
+    /**
+     * Streams status updates of an AI generation job as Server-Sent Events.
+     *
+     * @param jobId The ID returned when the voice note was submitted.
+     * @return An event stream that ends once the job completes or fails.
+     */
+    @GetMapping(path = "/ai-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Subscribe to AI job updates",
+            description = "Sends a 'status' event on every status change of the job and closes after the final one."
+    )
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @ApiResponse(responseCode = "404", description = "Job not found, expired, or owned by another user")
+    public SseEmitter streamAiJob(@PathVariable String jobId) {
+        return aiJobService.subscribe(jobId);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.example._Do.task.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "State of an asynchronous AI task generation job")
+public class AiJobResponse {
+
+    @Schema(description = "Job ID, used to poll or subscribe for the result", example = "5f0c2b8e-3c1d-4a57-9b8e-2d7f1a6c9e10")
+    private String jobId;
+
+    @Schema(description = "Current state of the job", example = "PENDING")
+    private AiJobStatus status;
+
+    @Schema(description = "Extracted task, present once the job is COMPLETED")
+    private AiTaskResponse result;
+
+    @Schema(description = "Reason of the failure, present once the job is FAILED")
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.example._Do.task.dto;
+
+/**
+ * Lifecycle of an asynchronous AI task generation job.
+ */
+public enum AiJobStatus {
+    /** Accepted and waiting for a worker. */
+    PENDING,
+    /** Being processed by a worker. */
+    RUNNING,
+    /** Finished; the result is available. */
+    COMPLETED,
+    /** Finished without a result; see the error message. */
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
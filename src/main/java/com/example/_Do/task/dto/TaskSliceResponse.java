@@ -0,0 +1,27 @@
+package com.example._Do.task.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A slice of tasks retrieved with cursor (keyset) pagination")
+public class TaskSliceResponse {
+
+    @Schema(description = "Tasks of this slice, newest first")
+    private List<TaskResponse> content;
+
+    @Schema(description = "Opaque cursor to pass back to fetch the next slice, null when there are no more tasks",
+            example = "MjAyNC0xMi0xNFQxMDoxNTozMC4xMjM0NTZ8NDI")
+    private String nextCursor;
+
+    @Schema(description = "Whether more tasks are available after this slice", example = "true")
+    private boolean hasNext;
+}
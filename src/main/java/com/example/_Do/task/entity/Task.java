@@ -5,6 +5,7 @@ import com.example._Do.user.entity.User;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -16,8 +17,19 @@ import java.util.Set;
  * This class maps to the 'tasks' table and includes relationships to the {@link User} entity,
  * along with automatic timestamp auditing.
  * </p>
+ * <p>
+ * The {@code Task.withUsers} entity graph fetches the creator and the assignee together with the task,
+ * so that mapping a task to its response does not trigger additional lazy loads.
+ * </p>
  */
 @Entity
+@NamedEntityGraph(
+        name = "Task.withUsers",
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode("assignee")
+        }
+)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -48,7 +60,9 @@ public class Task {
     @Column(name = "is_private", nullable = false)
     private boolean isPrivate = false;
 
+    // Loaded for up to 50 tasks per statement when a page of tasks is mapped
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "task_assignees", joinColumns = @JoinColumn(name = "task_id"))
     @Column(name = "user_id")
     private Set<Long> assigneeIds = new HashSet<>();
@@ -0,0 +1,68 @@
+package com.example._Do.task.pagination;
+
+import com.example._Do.exception.InvalidCursorException;
+import com.example._Do.task.entity.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a task in the newest-first keyset ordering {@code (created_at DESC, id DESC)}.
+ * <p>
+ * Clients receive the position as an opaque, URL-safe string and send it back unchanged to
+ * fetch the tasks that come after it. Because the next slice is located with a seek predicate
+ * instead of an offset, every slice costs the same and concurrent inserts neither skip nor
+ * duplicate items.
+ * </p>
+ *
+ * @param createdAt Creation timestamp of the last task returned.
+ * @param id        ID of the last task returned (tie-breaker for equal timestamps).
+ */
+public record TaskCursor(LocalDateTime createdAt, Long id) {
+
+    /**
+     * Position before the newest task. Used when the client does not send a cursor.
+     */
+    public static final TaskCursor START = new TaskCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Creates the cursor pointing right after the given task.
+     */
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor The opaque cursor string, or null/blank for the first slice.
+     * @return The decoded position.
+     * @throws InvalidCursorException If the cursor is malformed.
+     */
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new TaskCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Encodes this position as an opaque, URL-safe string.
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,10 +6,20 @@ import java.time.LocalDate;
 
 @Component
 public class GeminiPromptBuilder {
+
+    /**
+     * Version of the prompt text. Cached AI results are keyed by it, so bump it whenever the prompt changes.
+     */
+    public static final String PROMPT_VERSION = "1";
+
     public String buildTaskDetectionPrompt() {
+        return buildTaskDetectionPrompt(LocalDate.now());
+    }
+
+    public String buildTaskDetectionPrompt(LocalDate referenceDate) {
         return String.join("\n\n",
                 getPersona(),
-                getContext(),
+                getContext(referenceDate),
                 getInstructions(),
                 getOutputSchema()
         );
@@ -19,8 +29,8 @@ public class GeminiPromptBuilder {
         return "You are a professional task management assistant specialized in voice-to-task conversion.";
     }
 
-    private String getContext() {
-        String today = LocalDate.now().toString();
+    private String getContext(LocalDate referenceDate) {
+        String today = referenceDate.toString();
         return "Reference Date (Today): " + today + ". " +
                 "Interpret relative terms like 'tomorrow', 'next week' or 'tonight' based on this date.";
     }
@@ -3,40 +3,177 @@ package com.example._Do.task.repository;
 import com.example._Do.task.entity.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
     /**
-     * Retrieves all tasks belonging to a specific user.
+     * Retrieves a single task together with its creator, assignee and group.
      * <p>
-     * This is the main method used to fetch a user's todo list.
+     * Used by the detail and update paths, which check group ownership and map the
+     * task to a response, so that no lazy loads are needed afterwards.
      * </p>
      *
-     * @param userId The ID of the user.
-     * @return List of tasks owned by the user.
+     * @param id The ID of the task.
+     * @return An Optional containing the task if found.
      */
-    Page<Task> findAllByUserId(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = {"user", "assignee", "group"})
+    Optional<Task> findDetailedById(Long id);
 
     /**
-     * Retrieves tasks for a specific user filtered by completion status.
+     * Retrieves one page of every task the user is allowed to see.
      * <p>
-     * Example: Get all "Pending" tasks for User X.
+     * Visibility is evaluated by the database: personal tasks of the user, every task of the
+     * groups the user owns, and the tasks of the groups the user is a member of that are either
+     * public, created by the user or assigned to the user. Ordering and limiting are applied
+     * to the SQL statement.
+     * </p>
+     * <p>
+     * The groups are passed in (see {@code GroupRepository.findIdsByOwnerOrMember}) so that both
+     * branches of the filter are index conditions on the tenant: {@code user_id} of the personal
+     * tasks and {@code group_id} of the group tasks. The cost of a page depends on the tasks the
+     * user can see, never on the tasks of other users.
      * </p>
      *
-     * @param userId    The ID of the user.
-     * @param completed The completion status (true for done, false for pending).
-     * @return List of matching tasks.
+     * @param userId   The ID of the current user.
+     * @param groupIds The IDs of the groups the user owns or belongs to.
+     * @param pageable Pagination and sorting information.
+     * @return A page of visible tasks.
      */
-    List<Task> findAllByUserIdAndCompleted(Long userId, boolean completed);
-
-    Page<Task> findAllByGroupId(Long groupId, Pageable pageable);
+    @Query(value = """
+            SELECT t FROM Task t
+            LEFT JOIN t.group g
+            WHERE (t.group IS NULL AND t.user.id = :userId)
+               OR (t.group.id IN :groupIds
+                   AND (g.owner.id = :userId
+                        OR t.isPrivate = false
+                        OR t.user.id = :userId
+                        OR :userId MEMBER OF t.assigneeIds))
+            """,
+            countQuery = """
+            SELECT COUNT(t) FROM Task t
+            LEFT JOIN t.group g
+            WHERE (t.group IS NULL AND t.user.id = :userId)
+               OR (t.group.id IN :groupIds
+                   AND (g.owner.id = :userId
+                        OR t.isPrivate = false
+                        OR t.user.id = :userId
+                        OR :userId MEMBER OF t.assigneeIds))
+            """)
+    @EntityGraph("Task.withUsers")
+    Page<Task> findAllVisibleToUser(@Param("userId") Long userId,
+                                    @Param("groupIds") Collection<Long> groupIds,
+                                    Pageable pageable);
 
-    List<Task> findAllByGroupId(Long groupId);
+    /**
+     * Retrieves one page of the tasks of a group that the user is allowed to see.
+     * <p>
+     * The group owner sees every task. Other members see public tasks, the tasks they created
+     * and the tasks they are assigned to. The filter, ordering and limit are all applied by the database.
+     * </p>
+     *
+     * @param groupId  The ID of the group.
+     * @param userId   The ID of the current user.
+     * @param isOwner  Whether the current user owns the group.
+     * @param pageable Pagination and sorting information.
+     * @return A page of visible group tasks.
+     */
+    @Query(value = """
+            SELECT t FROM Task t
+            WHERE t.group.id = :groupId
+              AND (:isOwner = true
+                   OR t.isPrivate = false
+                   OR t.user.id = :userId
+                   OR :userId MEMBER OF t.assigneeIds)
+            """,
+            countQuery = """
+            SELECT COUNT(t) FROM Task t
+            WHERE t.group.id = :groupId
+              AND (:isOwner = true
+                   OR t.isPrivate = false
+                   OR t.user.id = :userId
+                   OR :userId MEMBER OF t.assigneeIds)
+            """)
+    @EntityGraph("Task.withUsers")
+    Page<Task> findVisibleByGroupId(@Param("groupId") Long groupId,
+                                    @Param("userId") Long userId,
+                                    @Param("isOwner") boolean isOwner,
+                                    Pageable pageable);
 
-    List<Task> findAllByUserIdAndGroupIsNull(Long userId);
+    /**
+     * Retrieves the visible tasks of the user that come after the given keyset position.
+     * <p>
+     * Same visibility rules as {@link #findAllVisibleToUser(Long, Collection, Pageable)}, ordered newest first
+     * on {@code (createdAt, id)}. The seek predicate replaces the offset, so deep slices cost the
+     * same as the first one. It is written as a row-value comparison, which PostgreSQL turns into the
+     * start key of the index scan; the equivalent OR of column comparisons would only be a filter.
+     * No count query is issued; the slice size is taken from the pageable.
+     * </p>
+     *
+     * @param userId    The ID of the current user.
+     * @param groupIds  The IDs of the groups the user owns or belongs to.
+     * @param createdAt Creation timestamp of the last task of the previous slice.
+     * @param id        ID of the last task of the previous slice.
+     * @param limit     Unsorted pageable whose page size limits the slice.
+     * @return The next tasks in keyset order.
+     */
+    @EntityGraph("Task.withUsers")
+    @Query("""
+            SELECT t FROM Task t
+            LEFT JOIN t.group g
+            WHERE (t.createdAt, t.id) < (:createdAt, :id)
+              AND ((t.group IS NULL AND t.user.id = :userId)
+                   OR (t.group.id IN :groupIds
+                       AND (g.owner.id = :userId
+                            OR t.isPrivate = false
+                            OR t.user.id = :userId
+                            OR :userId MEMBER OF t.assigneeIds)))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<Task> findAllVisibleToUserAfter(@Param("userId") Long userId,
+                                         @Param("groupIds") Collection<Long> groupIds,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable limit);
 
-    long countByGroupIdAndCompleted(Long groupId, boolean completed);
+    /**
+     * Retrieves the visible tasks of a group that come after the given keyset position.
+     * <p>
+     * Same visibility rules as {@link #findVisibleByGroupId(Long, Long, boolean, Pageable)},
+     * ordered newest first on {@code (createdAt, id)}.
+     * </p>
+     *
+     * @param groupId   The ID of the group.
+     * @param userId    The ID of the current user.
+     * @param isOwner   Whether the current user owns the group.
+     * @param createdAt Creation timestamp of the last task of the previous slice.
+     * @param id        ID of the last task of the previous slice.
+     * @param limit     Unsorted pageable whose page size limits the slice.
+     * @return The next group tasks in keyset order.
+     */
+    @EntityGraph("Task.withUsers")
+    @Query("""
+            SELECT t FROM Task t
+            WHERE t.group.id = :groupId
+              AND (t.createdAt, t.id) < (:createdAt, :id)
+              AND (:isOwner = true
+                   OR t.isPrivate = false
+                   OR t.user.id = :userId
+                   OR :userId MEMBER OF t.assigneeIds)
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<Task> findVisibleByGroupIdAfter(@Param("groupId") Long groupId,
+                                         @Param("userId") Long userId,
+                                         @Param("isOwner") boolean isOwner,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable limit);
 }
@@ -0,0 +1,438 @@
+package com.example._Do.task.service;
+
+import com.example._Do.auth.service.CurrentUserProvider;
+import com.example._Do.exception.AiJobRejectedException;
+import com.example._Do.exception.AiServiceUnavailableException;
+import com.example._Do.exception.AudioTooLargeException;
+import com.example._Do.exception.NoSpeechDetectedException;
+import com.example._Do.exception.RateLimitExceededException;
+import com.example._Do.task.dto.AiJobResponse;
+import com.example._Do.task.dto.AiJobStatus;
+import com.example._Do.task.dto.AiTaskResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs voice-to-task AI generation as asynchronous jobs.
+ * <p>
+ * A submission spools the upload to a temporary file and queues the job on a bounded worker pool, so the request
+ * returns immediately instead of holding a servlet thread for the whole Gemini round-trip. Job state is kept in Redis,
+ * so any instance can answer polls and stream updates. Each user may have at most {@code max-active-per-user} jobs
+ * queued or running at a time, across all instances.
+ * </p>
+ * <p>
+ * The active jobs of a user are a Redis sorted set of job IDs scored by the time their slot expires ({@code ttl}
+ * after submission). A slot is released when its job ends, and otherwise lapses on its own, so jobs lost with a
+ * crashed instance cannot block the user for good. Job hashes are created together with their expiry, and later
+ * status updates are only written while the hash still exists, so an expired job is never recreated without one.
+ * </p>
+ * <p>
+ * Event streams are polled on a single scheduler thread, which only hands each due poll to a virtual thread. The
+ * Redis read and the write to the client run there, so a slow client holds up its own stream only. At most
+ * {@code max-subscriptions} streams are open per instance.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AiJobService implements MeterBinder, DisposableBean {
+
+    private static final String JOB_PREFIX = "ai_job:";
+    private static final String ACTIVE_JOBS_PREFIX = "ai_jobs:active:";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_RESULT = "result";
+    private static final String FIELD_ERROR = "error";
+    private static final String FIELD_CREATED_AT = "createdAt";
+
+    /*
+     * KEYS[1]: active jobs of the user. ARGV: job ID, slot lifetime in ms, max active jobs.
+     * Drops lapsed slots, then takes one if the user is below the limit. Returns 1 if taken.
+     */
+    private static final RedisScript<Long> ACQUIRE_SLOT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[3]) then
+              return 0
+            end
+            redis.call('ZADD', KEYS[1], now + tonumber(ARGV[2]), ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[2]))
+            return 1
+            """, Long.class);
+
+    /*
+     * KEYS[1]: job hash. ARGV[1]: lifetime in ms, or 0 to update an existing job only; ARGV[2..]: fields and values.
+     * Returns 1 if written.
+     */
+    private static final RedisScript<Long> WRITE_JOB = RedisScript.of("""
+            if ARGV[1] == '0' and redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            if ARGV[1] ~= '0' then
+              redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    private final AiTaskService aiTaskService;
+    private final CurrentUserProvider currentUserProvider;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService sseScheduler;
+    private final ExecutorService ssePollers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final int maxActivePerUser;
+    private final int maxSubscriptions;
+    private final Duration jobTtl;
+    private final Duration sseTimeout;
+    private final Duration ssePollInterval;
+    private final DataSize maxAudioSize;
+
+    public AiJobService(
+            AiTaskService aiTaskService,
+            CurrentUserProvider currentUserProvider,
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${application.ai.jobs.threads:4}") int threads,
+            @Value("${application.ai.jobs.queue-capacity:50}") int queueCapacity,
+            @Value("${application.ai.jobs.max-active-per-user:3}") int maxActivePerUser,
+            @Value("${application.ai.jobs.ttl:PT1H}") Duration jobTtl,
+            @Value("${application.ai.jobs.sse-timeout:PT2M}") Duration sseTimeout,
+            @Value("${application.ai.jobs.sse-poll-interval:PT0.5S}") Duration ssePollInterval,
+            @Value("${application.ai.jobs.max-subscriptions:500}") int maxSubscriptions,
+            @Value("${application.ai.max-audio-size:10MB}") DataSize maxAudioSize
+    ) {
+        this.aiTaskService = aiTaskService;
+        this.currentUserProvider = currentUserProvider;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.maxActivePerUser = maxActivePerUser;
+        this.jobTtl = jobTtl;
+        this.sseTimeout = sseTimeout;
+        this.ssePollInterval = ssePollInterval;
+        this.maxSubscriptions = maxSubscriptions;
+        this.maxAudioSize = maxAudioSize;
+        this.workers = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                namedThreads("ai-job-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.sseScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("ai-job-sse-"));
+    }
+
+    /**
+     * Accepts a voice note for asynchronous task extraction.
+     *
+     * @param file The uploaded audio.
+     * @return The new job, in {@link AiJobStatus#PENDING} state.
+     * @throws RateLimitExceededException if the user already has the maximum number of active jobs.
+     * @throws AudioTooLargeException if the audio exceeds {@code application.ai.max-audio-size}.
+     * @throws AiJobRejectedException if the worker queue is full.
+     */
+    public AiJobResponse submit(MultipartFile file) {
+        Long userId = currentUserProvider.getCurrentUser().id();
+        String activeKey = ACTIVE_JOBS_PREFIX + userId;
+
+        String jobId = UUID.randomUUID().toString();
+        Long acquired = stringRedisTemplate.execute(ACQUIRE_SLOT, List.of(activeKey),
+                jobId, String.valueOf(jobTtl.toMillis()), String.valueOf(maxActivePerUser));
+        if (acquired == null || acquired == 0) {
+            throw new RateLimitExceededException("You already have " + maxActivePerUser + " voice notes in progress. Please wait for them to finish.");
+        }
+
+        Path audio = null;
+        try {
+            audio = spool(file);
+            writeJob(jobId, jobTtl,
+                    FIELD_USER_ID, userId.toString(),
+                    FIELD_STATUS, AiJobStatus.PENDING.name(),
+                    FIELD_CREATED_AT, Instant.now().toString());
+
+            Path spooled = audio;
+            workers.execute(() -> run(jobId, activeKey, spooled));
+        } catch (RejectedExecutionException e) {
+            release(jobId, activeKey, audio);
+            log.warn("AI job queue is full, rejecting job for user {}", userId);
+            throw new AiJobRejectedException("Too many voice notes are being processed. Please try again shortly.");
+        } catch (RuntimeException e) {
+            release(jobId, activeKey, audio);
+            throw e;
+        }
+
+        log.info("Queued AI job {} for user {}", jobId, userId);
+        return AiJobResponse.builder().jobId(jobId).status(AiJobStatus.PENDING).build();
+    }
+
+    /**
+     * @param jobId The job ID returned by {@link #submit}.
+     * @return The current state of the job, with its result once completed.
+     * @throws EntityNotFoundException if the job does not exist, expired, or belongs to another user.
+     */
+    public AiJobResponse getJob(String jobId) {
+        return toResponse(jobId, loadOwnedJob(jobId));
+    }
+
+    /**
+     * Streams the state of a job as Server-Sent Events until it completes or fails.
+     * An event is sent on every status change; the stream ends after the terminal one.
+     *
+     * @param jobId The job ID returned by {@link #submit}.
+     * @return The emitter to return from the controller.
+     * @throws EntityNotFoundException if the job does not exist, expired, or belongs to another user.
+     * @throws AiJobRejectedException if the maximum number of streams is already open.
+     */
+    public SseEmitter subscribe(String jobId) {
+        loadOwnedJob(jobId);
+        if (subscriptions.incrementAndGet() > maxSubscriptions) {
+            subscriptions.decrementAndGet();
+            log.warn("Rejecting AI job stream {}, {} streams are already open", jobId, maxSubscriptions);
+            throw new AiJobRejectedException("Too many job updates are being streamed. Please poll the job instead.");
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        AtomicReference<AiJobStatus> lastSent = new AtomicReference<>();
+        AtomicReference<ScheduledFuture<?>> poll = new AtomicReference<>();
+        AtomicBoolean polling = new AtomicBoolean();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Runnable close = () -> {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.decrementAndGet();
+            }
+            ScheduledFuture<?> future = poll.get();
+            if (future != null) {
+                future.cancel(false);
+            }
+        };
+        Runnable pollOnce = () -> {
+            try {
+                Map<Object, Object> job = stringRedisTemplate.opsForHash().entries(JOB_PREFIX + jobId);
+                if (job.isEmpty()) {
+                    emitter.complete();
+                    close.run();
+                    return;
+                }
+                AiJobResponse state = toResponse(jobId, job);
+                if (state.getStatus() != lastSent.getAndSet(state.getStatus())) {
+                    emitter.send(SseEmitter.event().name("status").data(state));
+                }
+                if (state.getStatus().isTerminal()) {
+                    emitter.complete();
+                    close.run();
+                }
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+                close.run();
+            } finally {
+                polling.set(false);
+            }
+        };
+
+        poll.set(sseScheduler.scheduleWithFixedDelay(() -> {
+            // A poll still blocked on its client is not stacked up; the stream catches up once it returns
+            if (!closed.get() && polling.compareAndSet(false, true)) {
+                try {
+                    ssePollers.execute(pollOnce);
+                } catch (RejectedExecutionException e) {
+                    polling.set(false);
+                }
+            }
+        }, 0, ssePollInterval.toMillis(), TimeUnit.MILLISECONDS));
+        if (closed.get()) {
+            poll.get().cancel(false);
+        }
+
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(e -> close.run());
+        return emitter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ai.jobs.queued", workers, e -> e.getQueue().size())
+                .description("AI generation jobs waiting for a worker")
+                .register(registry);
+        Gauge.builder("ai.jobs.active", workers, ThreadPoolExecutor::getActiveCount)
+                .description("AI generation jobs being processed")
+                .register(registry);
+        Gauge.builder("ai.jobs.subscriptions", subscriptions, AtomicInteger::get)
+                .description("Open AI job event streams")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+        sseScheduler.shutdownNow();
+        ssePollers.shutdownNow();
+    }
+
+    private void run(String jobId, String activeKey, Path audio) {
+        try {
+            if (!writeJob(jobId, null, FIELD_STATUS, AiJobStatus.RUNNING.name())) {
+                log.warn("AI job {} expired before it started, skipping it", jobId);
+                return;
+            }
+            AiTaskResponse result = aiTaskService.processVoiceTask(audio);
+
+            writeJob(jobId, null,
+                    FIELD_STATUS, AiJobStatus.COMPLETED.name(),
+                    FIELD_RESULT, objectMapper.writeValueAsString(result));
+            log.info("AI job {} completed", jobId);
+        } catch (NoSpeechDetectedException | AiServiceUnavailableException e) {
+            fail(jobId, e.getMessage());
+        } catch (Exception e) {
+            log.error("AI job {} failed", jobId, e);
+            fail(jobId, "The voice note could not be processed.");
+        } finally {
+            releaseSlot(jobId, activeKey);
+            deleteQuietly(audio);
+        }
+    }
+
+    private void fail(String jobId, String error) {
+        writeJob(jobId, null,
+                FIELD_STATUS, AiJobStatus.FAILED.name(),
+                FIELD_ERROR, error);
+    }
+
+    /**
+     * Writes fields of a job hash atomically with its lifetime.
+     *
+     * @param jobId           The job ID.
+     * @param ttl             The lifetime of a new job, or {@code null} to only update a job that still exists.
+     * @param fieldsAndValues Alternating field names and values.
+     * @return Whether the job was written.
+     */
+    private boolean writeJob(String jobId, Duration ttl, String... fieldsAndValues) {
+        Object[] args = new Object[fieldsAndValues.length + 1];
+        args[0] = ttl != null ? String.valueOf(ttl.toMillis()) : "0";
+        System.arraycopy(fieldsAndValues, 0, args, 1, fieldsAndValues.length);
+        Long written = stringRedisTemplate.execute(WRITE_JOB, List.of(JOB_PREFIX + jobId), args);
+        return written != null && written == 1;
+    }
+
+    private void releaseSlot(String jobId, String activeKey) {
+        try {
+            stringRedisTemplate.opsForZSet().remove(activeKey, jobId);
+        } catch (DataAccessException e) {
+            // The slot lapses on its own after the job TTL
+            log.warn("Could not release the AI job slot of {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private Map<Object, Object> loadOwnedJob(String jobId) {
+        Map<Object, Object> job = stringRedisTemplate.opsForHash().entries(JOB_PREFIX + jobId);
+        Long userId = currentUserProvider.getCurrentUser().id();
+        // Jobs of other users are reported as missing, like other resources the user cannot access
+        if (job.isEmpty() || !userId.toString().equals(job.get(FIELD_USER_ID))) {
+            throw new EntityNotFoundException("AI job not found");
+        }
+        return job;
+    }
+
+    private AiJobResponse toResponse(String jobId, Map<Object, Object> job) {
+        String result = (String) job.get(FIELD_RESULT);
+        try {
+            return AiJobResponse.builder()
+                    .jobId(jobId)
+                    .status(AiJobStatus.valueOf((String) job.get(FIELD_STATUS)))
+                    .result(result != null ? objectMapper.readValue(result, AiTaskResponse.class) : null)
+                    .error((String) job.get(FIELD_ERROR))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored AI job result is not readable: " + jobId, e);
+        }
+    }
+
+    /**
+     * Copies the upload out of the request, which is cleaned up as soon as the submission returns.
+     * The size cap is enforced while copying, so a client cannot get past it with a wrong size header.
+     */
+    private Path spool(MultipartFile file) {
+        long maxBytes = maxAudioSize.toBytes();
+        if (file.getSize() > maxBytes) {
+            throw new AudioTooLargeException("The voice note exceeds the maximum size of " + maxBytes / 1024 + " KB.");
+        }
+        Path audio = null;
+        try (InputStream in = new SizeLimitedInputStream(file.getInputStream(), maxBytes)) {
+            audio = Files.createTempFile("ai-job-", ".audio");
+            Files.copy(in, audio, StandardCopyOption.REPLACE_EXISTING);
+            return audio;
+        } catch (IOException e) {
+            deleteQuietly(audio);
+            throw new UncheckedIOException("Could not store the uploaded audio", e);
+        } catch (AudioTooLargeException e) {
+            deleteQuietly(audio);
+            throw e;
+        }
+    }
+
+    private void release(String jobId, String activeKey, Path audio) {
+        stringRedisTemplate.delete(JOB_PREFIX + jobId);
+        releaseSlot(jobId, activeKey);
+        deleteQuietly(audio);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary audio file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.example._Do.task.service;
+
+import com.example._Do.config.GeminiClientProperties;
+import com.example._Do.task.dto.AiTaskResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Redis cache for AI task extraction results.
+ * <p>
+ * Keys are content-addressed (audio hash, prompt version and reference date), so a client retrying the same upload
+ * gets the stored result instead of triggering another Gemini call. Concurrent loads of the same key are collapsed:
+ * within an instance, callers share one in-flight call; across instances, a short Redis lock lets one instance call
+ * Gemini while the others wait for its result.
+ * </p>
+ * <p>
+ * The lock lives as long as the slowest possible Gemini call, derived from the client timeouts and retries, plus
+ * {@code lock-margin} for the audio normalization around it. A shorter lock would expire under a slow but healthy
+ * call and let another instance start the same call.
+ * </p>
+ * <p>
+ * The cache is best-effort. If Redis fails, results are computed directly.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AiResultCache {
+
+    private static final String RESULT_PREFIX = "ai_result:";
+    private static final String LOCK_PREFIX = "ai_result_lock:";
+    private static final RedisScript<Long> RELEASE_LOCK = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration pollInterval;
+
+    private final ConcurrentMap<String, CompletableFuture<AiTaskResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public AiResultCache(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${application.ai.cache.ttl:PT24H}") Duration ttl,
+            GeminiClientProperties geminiClientProperties,
+            @Value("${application.ai.cache.lock-margin:PT15S}") Duration lockMargin,
+            @Value("${application.ai.cache.poll-interval:PT0.25S}") Duration pollInterval
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lockTimeout = geminiClientProperties.maxCallDuration().plus(lockMargin);
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Returns the cached result for {@code key}, or loads, caches and returns it.
+     * Failures are not cached; every caller waiting on a failed load gets its exception.
+     *
+     * @param key    The content-addressed cache key.
+     * @param loader The Gemini call, run at most once at a time per key.
+     * @return The cached or freshly loaded result.
+     */
+    public AiTaskResponse get(String key, Supplier<AiTaskResponse> loader) {
+        AiTaskResponse cached = read(key);
+        if (cached != null) {
+            log.info("AI result cache hit for {}", key);
+            return cached;
+        }
+
+        CompletableFuture<AiTaskResponse> load = new CompletableFuture<>();
+        CompletableFuture<AiTaskResponse> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            log.info("Joining in-flight AI call for {}", key);
+            return join(existing);
+        }
+
+        try {
+            AiTaskResponse result = loadOnce(key, loader);
+            load.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private AiTaskResponse loadOnce(String key, Supplier<AiTaskResponse> loader) {
+        String lockKey = LOCK_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        boolean locked = acquire(lockKey, token);
+
+        if (!locked) {
+            AiTaskResponse result = awaitOtherInstance(key, lockKey);
+            if (result != null) {
+                return result;
+            }
+            // The other instance failed or gave up; load without the lock rather than fail the job
+        }
+
+        try {
+            AiTaskResponse result = loader.get();
+            write(key, result);
+            return result;
+        } finally {
+            if (locked) {
+                release(lockKey, token);
+            }
+        }
+    }
+
+    private AiTaskResponse awaitOtherInstance(String key, String lockKey) {
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(pollInterval.toMillis());
+                AiTaskResponse result = read(key);
+                if (result != null || !Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockKey))) {
+                    return result;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            log.warn("AI result cache unavailable while waiting for {}: {}", key, e.getMessage());
+        }
+        return null;
+    }
+
+    private boolean acquire(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTimeout));
+        } catch (DataAccessException e) {
+            log.warn("AI result cache unavailable, loading without lock: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            // Only delete our own lock; it may have expired and been taken by another instance
+            stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+        } catch (DataAccessException e) {
+            log.warn("Could not release AI result lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+
+    private AiTaskResponse read(String key) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(RESULT_PREFIX + key);
+            return json != null ? objectMapper.readValue(json, AiTaskResponse.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not read cached AI result {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, AiTaskResponse result) {
+        try {
+            stringRedisTemplate.opsForValue().set(RESULT_PREFIX + key, objectMapper.writeValueAsString(result), ttl);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not cache AI result {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static AiTaskResponse join(CompletableFuture<AiTaskResponse> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.example._Do.task.service;
 
+import com.example._Do.exception.AiServiceUnavailableException;
+import com.example._Do.exception.NoSpeechDetectedException;
+import com.example._Do.task.audio.AudioNormalizer;
+import com.example._Do.task.client.GeminiClient;
+import com.example._Do.task.audio.NormalizedAudio;
 import com.example._Do.task.dto.AiTaskResponse;
 import com.example._Do.task.prompt.GeminiPromptBuilder;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.multipart.MultipartFile;
-
-import java.util.Base64;
-import java.util.List;
-import java.util.Map;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
 
 @Slf4j
 @Service
@@ -26,29 +40,47 @@ public class AiTaskService {
     @Value("${google.gemini.url}")
     private String geminiUrl;
 
+    @Value("${application.ai.max-audio-size:10MB}")
+    private DataSize maxAudioSize;
+
     private final ObjectMapper objectMapper;
     private final GeminiPromptBuilder geminiPromptBuilder;
-    private final RestClient restClient;
-
-    // TODO refactor
-    public AiTaskResponse processVoiceTask(MultipartFile file) {
+    private final GeminiClient geminiClient;
+    private final AudioNormalizer audioNormalizer;
+    private final AiResultCache aiResultCache;
+
+    /**
+     * Extracts a task from a recorded voice note.
+     * <p>
+     * Called from the {@link AiJobService} workers with the upload already spooled to disk.
+     * The audio is normalized by {@link AudioNormalizer} first; clips without speech never reach the API.
+     * Results are cached by {@link AiResultCache}, so retried uploads of the same audio reuse the first answer.
+     * </p>
+     *
+     * @param audio The spooled audio file.
+     * @return The detected task.
+     * @throws NoSpeechDetectedException if the clip is empty or near-silent.
+     * @throws AiServiceUnavailableException if Gemini cannot be called right now.
+     */
+    public AiTaskResponse processVoiceTask(Path audio) {
         try {
             if (!isApiKeyMissing()) {
                 throw new RuntimeException("Api-Key is not found.");
             }
 
-            log.info("Processing voice file: {}, size: {}", file.getOriginalFilename(), file.getSize());
-
-            String base64Audio = Base64.getEncoder().encodeToString(file.getBytes());
-            String englishPrompt = geminiPromptBuilder.buildTaskDetectionPrompt();
+            log.info("Processing voice file: {}, size: {}", audio.getFileName(), Files.size(audio));
 
-            Map<String, Object> requestBody = buildRequestBody(englishPrompt, base64Audio);
-
-            String response = geminiApiCall(requestBody);
-
-            log.info("Response: {}", response);
-            return parseGeminiResponse(response);
+            // The prompt embeds the reference date, so the same audio on another day is a different request
+            LocalDate referenceDate = LocalDate.now();
+            String cacheKey = GeminiPromptBuilder.PROMPT_VERSION + ":" + referenceDate + ":" + sha256(audio);
+            return aiResultCache.get(cacheKey, () -> extractTask(audio, referenceDate));
 
+        } catch (NoSpeechDetectedException e) {
+            log.info("Skipping AI call for {}: {}", audio.getFileName(), e.getMessage());
+            throw e;
+        } catch (AiServiceUnavailableException e) {
+            log.warn("AI service unavailable for {}: {}", audio.getFileName(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("AI error: ", e);
             // TODO add custom error
@@ -56,31 +88,87 @@ public class AiTaskService {
         }
     }
 
+    private AiTaskResponse extractTask(Path audio, LocalDate referenceDate) {
+        try {
+            NormalizedAudio normalized = audioNormalizer.normalize(audio);
+            try {
+                String englishPrompt = geminiPromptBuilder.buildTaskDetectionPrompt(referenceDate);
+
+                String response = geminiApiCall(requestBody(englishPrompt, normalized));
+
+                log.info("Response: {}", response);
+                return parseGeminiResponse(response);
+            } finally {
+                if (normalized.converted()) {
+                    Files.deleteIfExists(normalized.file());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(Path audio) throws IOException {
+        try (InputStream in = Files.newInputStream(audio)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private boolean isApiKeyMissing() {
         return apiKey != null && !apiKey.isEmpty();
     }
 
-    private String geminiApiCall(Map<String, Object> requestBody) {
-        return restClient.post()
-                .uri(geminiUrl + "?key=" + apiKey)
-                .body(requestBody)
-                .retrieve()
-                .body(String.class);
+    private String geminiApiCall(StreamingHttpOutputMessage.Body requestBody) {
+        return geminiClient.generateContent(geminiUrl, apiKey, requestBody);
     }
 
-    private Map<String, Object> buildRequestBody(String prompt, String base64Audio){
-        return Map.of("contents", List.of(
-                Map.of("parts", List.of(
-                        Map.of("text", prompt),
-                        Map.of("inline_data", Map.of(
-                                "mime_type", "audio/wav",
-                                "data", base64Audio
-                        ))
-                ))
-        ));
+    /**
+     * Writes the Gemini request straight to the connection.
+     * <p>
+     * The audio is Base64-encoded chunk by chunk while it is read from disk, so memory use per request stays
+     * constant instead of holding the raw bytes, the encoded string and the serialized JSON at the same time.
+     * </p>
+     */
+    private StreamingHttpOutputMessage.Body requestBody(String prompt, NormalizedAudio audio) {
+        return outputStream -> {
+            try (InputStream in = new SizeLimitedInputStream(Files.newInputStream(audio.file()), maxAudioSize.toBytes());
+                 // The request owns the connection stream; closing the generator only flushes it
+                 JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("contents");
+                json.writeStartObject();
+                json.writeArrayFieldStart("parts");
+
+                json.writeStartObject();
+                json.writeStringField("text", prompt);
+                json.writeEndObject();
+
+                json.writeStartObject();
+                json.writeObjectFieldStart("inline_data");
+                json.writeStringField("mime_type", audio.mimeType());
+                json.writeFieldName("data");
+                json.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, in, -1);
+                json.writeEndObject();
+                json.writeEndObject();
+
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+        };
     }
 
-    private AiTaskResponse parseGeminiResponse(String response) throws Exception {
+    private AiTaskResponse parseGeminiResponse(String response) throws JsonProcessingException {
         JsonNode root = objectMapper.readTree(response);
         String aiText = root.path("candidates").get(0)
                 .path("content").path("parts").get(0)
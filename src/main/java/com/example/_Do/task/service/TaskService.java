@@ -1,5 +1,7 @@
 package com.example._Do.task.service;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.auth.service.CurrentUserProvider;
 import com.example._Do.group.entity.Group;
 import com.example._Do.group.entity.GroupPermission;
 import com.example._Do.group.repository.GroupMemberRepository;
@@ -7,8 +9,10 @@ import com.example._Do.group.repository.GroupRepository;
 import com.example._Do.group.service.GroupService;
 import com.example._Do.task.dto.TaskRequest;
 import com.example._Do.task.dto.TaskResponse;
+import com.example._Do.task.dto.TaskSliceResponse;
 import com.example._Do.task.entity.Task;
 import com.example._Do.task.mapper.TaskMapper;
+import com.example._Do.task.pagination.TaskCursor;
 import com.example._Do.task.repository.TaskRepository;
 import com.example._Do.user.entity.User;
 import com.example._Do.user.repository.UserRepository;
@@ -17,41 +21,45 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TaskService {
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
 
     @Transactional
     public TaskResponse createTask(TaskRequest taskRequest) {
-        User currentUser = getCurrentUser();
-        log.info("Creating task for user: {}", currentUser.getId());
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        log.info("Creating task for user: {}", currentUser.id());
 
         Task task = taskMapper.toEntity(taskRequest);
-        task.setUser(currentUser);
+        task.setUser(userRepository.getReferenceById(currentUser.id()));
 
         if (taskRequest.getGroupId() != null) {
             Group group = groupRepository.findById(taskRequest.getGroupId())
                     .orElseThrow(() -> new EntityNotFoundException("Group not found"));
 
-            boolean isOwner = group.getOwner().getId().equals(currentUser.getId());
-            boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(group.getId(), currentUser.getId())
+            boolean isOwner = group.getOwner().getId().equals(currentUser.id());
+            boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(group.getId(), currentUser.id())
                     .map(m -> m.getPermissions().contains(GroupPermission.CAN_CREATE))
                     .orElse(false);
 
@@ -74,67 +82,64 @@ public class TaskService {
         }
 
         Task savedTask = taskRepository.save(task);
+        if (savedTask.getGroup() != null && !savedTask.isCompleted()) {
+            groupRepository.adjustPendingTaskCount(savedTask.getGroup().getId(), 1);
+        }
         return toResponseWithDetails(savedTask);
     }
 
     @Transactional(readOnly = true)
     public Page<TaskResponse> getAllTasks(Pageable pageable) {
-        User currentUser = getCurrentUser();
-        Long currentUserId = currentUser.getId();
-        log.info("Retrieving all tasks for user: {}", currentUserId);
-
-        // Personal tasks (no group)
-        List<Task> personal = taskRepository.findAllByUserIdAndGroupIsNull(currentUserId);
-
-        // Visible tasks from every group the user belongs to
-        List<Task> groupTasks = groupRepository.findAllByOwnerOrMember(currentUser).stream()
-                .flatMap(g -> {
-                    boolean isGroupOwner = g.getOwner().getId().equals(currentUserId);
-                    return taskRepository.findAllByGroupId(g.getId()).stream()
-                            .filter(t -> !t.isPrivate()
-                                    || t.getUser().getId().equals(currentUserId)
-                                    || isGroupOwner
-                                    || t.getAssigneeIds().contains(currentUserId));
-                })
-                .toList();
-
-        List<Task> all = new ArrayList<>();
-        all.addAll(personal);
-        all.addAll(groupTasks);
-        all.sort(Comparator.comparing(Task::getCreatedAt).reversed());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), all.size());
-        List<TaskResponse> page = start >= all.size() ? List.of() :
-                all.subList(start, end).stream().map(this::toResponseWithDetails).toList();
-        return new PageImpl<>(page, pageable, all.size());
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        log.info("Retrieving all tasks for user: {}", currentUser.id());
+
+        // Personal tasks and visible group tasks, filtered, sorted and paged by the database
+        List<Long> groupIds = groupRepository.findIdsByOwnerOrMember(currentUser.id());
+        return toResponsePage(taskRepository.findAllVisibleToUser(currentUser.id(), groupIds, pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<TaskResponse> getGroupTasks(Long groupId, Pageable pageable) {
-        User currentUser = getCurrentUser();
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new EntityNotFoundException("Group not found"));
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        boolean isOwner = requireGroupAccess(groupId, currentUser);
 
-        boolean isOwner = group.getOwner().getId().equals(currentUser.getId());
-        boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(groupId, currentUser.getId());
-        if (!isOwner && !isMember) {
-            throw new AccessDeniedException("Access denied to this group");
+        return toResponsePage(taskRepository.findVisibleByGroupId(groupId, currentUser.id(), isOwner, pageable));
+    }
+
+    /**
+     * Retrieves the next slice of visible tasks, newest first, using keyset pagination.
+     *
+     * @param cursor  Opaque cursor returned with the previous slice, or null for the first slice.
+     * @param size    Requested slice size (clamped to 1..{@value #MAX_SLICE_SIZE}).
+     * @param groupId Optional group to restrict the slice to.
+     * @return The tasks of the slice and the cursor of the following one.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceResponse getTaskSlice(String cursor, int size, Long groupId) {
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        TaskCursor position = TaskCursor.decode(cursor);
+        int limit = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+
+        // Fetch one extra row to know whether another slice follows
+        Pageable window = PageRequest.ofSize(limit + 1);
+        List<Task> tasks;
+        if (groupId != null) {
+            boolean isOwner = requireGroupAccess(groupId, currentUser);
+            tasks = taskRepository.findVisibleByGroupIdAfter(groupId, currentUser.id(), isOwner,
+                    position.createdAt(), position.id(), window);
+        } else {
+            List<Long> groupIds = groupRepository.findIdsByOwnerOrMember(currentUser.id());
+            tasks = taskRepository.findAllVisibleToUserAfter(currentUser.id(), groupIds,
+                    position.createdAt(), position.id(), window);
         }
 
-        Long currentUserId = currentUser.getId();
-        List<TaskResponse> visible = taskRepository.findAllByGroupId(groupId).stream()
-                .filter(t -> !t.isPrivate()
-                        || t.getUser().getId().equals(currentUserId)
-                        || isOwner
-                        || t.getAssigneeIds().contains(currentUserId))
-                .map(this::toResponseWithDetails)
-                .toList();
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), visible.size());
-        List<TaskResponse> page = start > visible.size() ? List.of() : visible.subList(start, end);
-        return new PageImpl<>(page, pageable, visible.size());
+        boolean hasNext = tasks.size() > limit;
+        List<Task> slice = hasNext ? tasks.subList(0, limit) : tasks;
+        return TaskSliceResponse.builder()
+                .content(toResponsesWithDetails(slice))
+                .nextCursor(hasNext ? TaskCursor.after(slice.get(limit - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -145,15 +150,15 @@ public class TaskService {
 
     @Transactional
     public TaskResponse updateTask(Long taskId, TaskRequest taskRequest) {
-        User currentUser = getCurrentUser();
-        Task task = taskRepository.findById(taskId)
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
+        Task task = taskRepository.findDetailedById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
 
         if (task.getGroup() != null) {
             // Group task: check CAN_EDIT or is owner
-            boolean isGroupOwner = task.getGroup().getOwner().getId().equals(currentUser.getId());
-            boolean isTaskOwner = task.getUser().getId().equals(currentUser.getId());
-            boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(task.getGroup().getId(), currentUser.getId())
+            boolean isGroupOwner = task.getGroup().getOwner().getId().equals(currentUser.id());
+            boolean isTaskOwner = task.getUser().getId().equals(currentUser.id());
+            boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(task.getGroup().getId(), currentUser.id())
                     .map(m -> m.getPermissions().contains(GroupPermission.CAN_EDIT))
                     .orElse(false);
 
@@ -162,14 +167,19 @@ public class TaskService {
             }
         } else {
             // Personal task: must own it
-            if (!task.getUser().getId().equals(currentUser.getId())) {
+            if (!task.getUser().getId().equals(currentUser.id())) {
                 throw new EntityNotFoundException("Task not found");
             }
         }
 
         log.info("Updating task ID: {}", taskId);
+        boolean wasCompleted = task.isCompleted();
         taskMapper.updateEntityFromRequest(taskRequest, task);
 
+        if (task.getGroup() != null && wasCompleted != task.isCompleted()) {
+            groupRepository.adjustPendingTaskCount(task.getGroup().getId(), task.isCompleted() ? -1 : 1);
+        }
+
         // Update assignee if provided
         if (task.getGroup() != null && taskRequest.getAssigneeId() != null) {
             User assignee = userRepository.findById(taskRequest.getAssigneeId())
@@ -184,14 +194,14 @@ public class TaskService {
 
     @Transactional
     public void deleteTask(Long taskId) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser currentUser = currentUserProvider.getCurrentUser();
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
 
         if (task.getGroup() != null) {
-            boolean isGroupOwner = task.getGroup().getOwner().getId().equals(currentUser.getId());
-            boolean isTaskOwner = task.getUser().getId().equals(currentUser.getId());
-            boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(task.getGroup().getId(), currentUser.getId())
+            boolean isGroupOwner = task.getGroup().getOwner().getId().equals(currentUser.id());
+            boolean isTaskOwner = task.getUser().getId().equals(currentUser.id());
+            boolean hasPerm = groupMemberRepository.findByGroupIdAndUserId(task.getGroup().getId(), currentUser.id())
                     .map(m -> m.getPermissions().contains(GroupPermission.CAN_DELETE))
                     .orElse(false);
 
@@ -199,48 +209,82 @@ public class TaskService {
                 throw new AccessDeniedException("You don't have permission to delete tasks in this group");
             }
         } else {
-            if (!task.getUser().getId().equals(currentUser.getId())) {
+            if (!task.getUser().getId().equals(currentUser.id())) {
                 throw new EntityNotFoundException("Task not found");
             }
         }
 
         log.info("Deleting task ID: {}", taskId);
         taskRepository.delete(task);
+        if (task.getGroup() != null && !task.isCompleted()) {
+            groupRepository.adjustPendingTaskCount(task.getGroup().getId(), -1);
+        }
     }
 
     private TaskResponse toResponseWithDetails(Task task) {
-        TaskResponse resp = taskMapper.toResponse(task);
-        if (task.getAssigneeIds() != null && !task.getAssigneeIds().isEmpty()) {
-            List<String> names = userRepository.findAllById(task.getAssigneeIds())
-                    .stream()
-                    .map(u -> u.getFirstName() + " " + u.getLastName())
-                    .toList();
-            resp.setAssigneeNames(names);
-        }
-        return resp;
+        return toResponsesWithDetails(List.of(task)).get(0);
+    }
+
+    private Page<TaskResponse> toResponsePage(Page<Task> tasks) {
+        return new PageImpl<>(toResponsesWithDetails(tasks.getContent()), tasks.getPageable(), tasks.getTotalElements());
+    }
+
+    /**
+     * Maps a batch of tasks to responses and fills in the assignee names.
+     * The assignees of the whole batch are resolved with a single query, whatever the batch size.
+     */
+    private List<TaskResponse> toResponsesWithDetails(List<Task> tasks) {
+        Set<Long> assigneeIds = tasks.stream()
+                .filter(t -> t.getAssigneeIds() != null)
+                .flatMap(t -> t.getAssigneeIds().stream())
+                .collect(Collectors.toSet());
+
+        Map<Long, String> assigneeNames = assigneeIds.isEmpty() ? Map.of() :
+                userRepository.findAllById(assigneeIds).stream()
+                        .collect(Collectors.toMap(User::getId, u -> u.getFirstName() + " " + u.getLastName()));
+
+        return tasks.stream().map(task -> {
+            TaskResponse resp = taskMapper.toResponse(task);
+            if (task.getAssigneeIds() != null && !task.getAssigneeIds().isEmpty()) {
+                resp.setAssigneeNames(task.getAssigneeIds().stream()
+                        .map(assigneeNames::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+            }
+            return resp;
+        }).toList();
     }
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    /**
+     * Ensures the user may read the group and tells whether the user owns it.
+     */
+    private boolean requireGroupAccess(Long groupId, AuthenticatedUser user) {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new EntityNotFoundException("Group not found"));
+
+        boolean isOwner = group.getOwner().getId().equals(user.id());
+        boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(groupId, user.id());
+        if (!isOwner && !isMember) {
+            throw new AccessDeniedException("Access denied to this group");
+        }
+        return isOwner;
     }
 
     private Task getTaskOrThrow(Long taskId) {
-        User user = getCurrentUser();
-        Task task = taskRepository.findById(taskId)
+        AuthenticatedUser user = currentUserProvider.getCurrentUser();
+        Task task = taskRepository.findDetailedById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
 
         if (task.getGroup() != null) {
-            boolean isGroupOwner = task.getGroup().getOwner().getId().equals(user.getId());
-            boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(task.getGroup().getId(), user.getId());
+            boolean isGroupOwner = task.getGroup().getOwner().getId().equals(user.id());
+            boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(task.getGroup().getId(), user.id());
             if (!isGroupOwner && !isMember) {
                 throw new EntityNotFoundException("Task not found");
             }
         } else {
-            if (!task.getUser().getId().equals(user.getId())) {
+            if (!task.getUser().getId().equals(user.id())) {
                 log.warn("User {} tried to access Task {} which belongs to User {}",
-                        user.getId(), taskId, task.getUser().getId());
+                        user.id(), taskId, task.getUser().getId());
                 throw new EntityNotFoundException("Task not found");
             }
         }
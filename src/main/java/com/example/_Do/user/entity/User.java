@@ -12,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Entity class representing a User in the database.
@@ -71,6 +72,27 @@ public class User implements UserDetails {
     @NotNull(message = "Role is required")
     private Role role;
 
+    /**
+     * Random value embedded in access tokens.
+     * Rotating it (e.g., on role change or forced logout) invalidates every token issued before.
+     */
+    @Column(name = "security_stamp", nullable = false, length = 36)
+    private String securityStamp;
+
+    @PrePersist
+    private void initSecurityStamp() {
+        if (securityStamp == null) {
+            rotateSecurityStamp();
+        }
+    }
+
+    /**
+     * Replaces the security stamp with a new random value.
+     */
+    public void rotateSecurityStamp() {
+        this.securityStamp = UUID.randomUUID().toString();
+    }
+
     // --- UserDetails Interface Implementation ---
 
     /**
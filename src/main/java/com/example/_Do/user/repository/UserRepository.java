@@ -2,6 +2,9 @@ package com.example._Do.user.repository;
 
 import com.example._Do.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -39,4 +42,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return True if a user with this email exists, False otherwise.
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Reads only the security stamp of a user.
+     * Used to validate the stamp claim of access tokens without loading the full entity.
+     *
+     * @param id The ID of the user.
+     * @return The current stamp, or empty if the user does not exist.
+     */
+    @Query("SELECT u.securityStamp FROM User u WHERE u.id = :id")
+    Optional<String> findSecurityStampById(@Param("id") Long id);
+
+    /**
+     * Replaces the security stamp of a user.
+     *
+     * @param id    The ID of the user.
+     * @param stamp The new stamp.
+     * @return The number of updated rows (0 if the user does not exist).
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.securityStamp = :stamp WHERE u.id = :id")
+    int updateSecurityStamp(@Param("id") Long id, @Param("stamp") String stamp);
+
+    /**
+     * Replaces the stored password hash of a user.
+     * Used to upgrade hashes with outdated parameters on successful login.
+     *
+     * @param email    The email of the user.
+     * @param password The new, already encoded password.
+     * @return The number of updated rows (0 if the user does not exist).
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+}
@@ -0,0 +1,7 @@
+-- Keyset (cursor) pagination of task lists on (created_at DESC, id DESC)
+
+-- Personal tasks of a user
+CREATE INDEX idx_tasks_personal_created_at_id ON tasks (user_id, created_at DESC, id DESC) WHERE group_id IS NULL;
+
+-- Tasks of a group
+CREATE INDEX idx_tasks_group_created_at_id ON tasks (group_id, created_at DESC, id DESC) WHERE group_id IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Indexes for the membership and invitation access paths
+-- Task lists are served by the per-user and per-group keyset indexes of V5
+
+-- Groups owned by a user (GroupRepository.findIdsByOwnerOrMember)
+CREATE INDEX idx_groups_owner_id ON groups (owner_id);
+
+-- Memberships of a user (GroupRepository.findIdsByOwnerOrMember, findSummariesByOwnerOrMember)
+-- Lookups by group are served by uc_group_members_group_user (group_id, user_id)
+CREATE INDEX idx_group_members_user_id ON group_members (user_id);
+
+-- Invitations of a user by status (GroupInvitationRepository.findAllByInviteeAndStatus, existsByGroupIdAndInviteeIdAndStatus)
+CREATE INDEX idx_group_invitations_invitee_status ON group_invitations (invitee_id, status, group_id);
+
+-- Invitations of a group (GroupInvitationRepository.findAllByGroupId)
+CREATE INDEX idx_group_invitations_group_id ON group_invitations (group_id);
@@ -0,0 +1,8 @@
+-- Denormalized counters read by the group list, maintained by the task and membership write paths
+ALTER TABLE groups ADD COLUMN member_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE groups ADD COLUMN pending_task_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill from existing data
+UPDATE groups
+SET member_count       = (SELECT COUNT(*) FROM group_members m WHERE m.group_id = groups.id),
+    pending_task_count = (SELECT COUNT(*) FROM tasks t WHERE t.group_id = groups.id AND t.completed = FALSE);
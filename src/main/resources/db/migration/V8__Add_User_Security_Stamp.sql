@@ -0,0 +1,6 @@
+-- Random per-user value embedded in access tokens; rotating it invalidates every token issued before
+ALTER TABLE users ADD COLUMN security_stamp VARCHAR(36);
+
+UPDATE users SET security_stamp = gen_random_uuid()::text;
+
+ALTER TABLE users ALTER COLUMN security_stamp SET NOT NULL;
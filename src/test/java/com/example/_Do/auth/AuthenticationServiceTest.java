@@ -2,8 +2,13 @@ package com.example._Do.auth;
 
 import com.example._Do.auth.dto.AuthenticationRequest;
 import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.auth.dto.RefreshTokenRequest;
+import com.example._Do.auth.principal.AuthenticatedUser;
 import com.example._Do.auth.service.AuthenticationService;
+import com.example._Do.auth.service.CurrentUserProvider;
 import com.example._Do.auth.service.JwtService;
+import com.example._Do.auth.service.RefreshTokenService;
+import com.example._Do.auth.service.SecurityStampService;
 import com.example._Do.user.dto.RegisterRequest;
 import com.example._Do.user.entity.Role;
 import com.example._Do.user.entity.User;
@@ -20,6 +25,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -48,6 +54,10 @@ public class AuthenticationServiceTest {
     @Mock private JwtService jwtService;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private UserMapper userMapper;
+    @Mock private CurrentUserProvider currentUserProvider;
+    @Mock private SecurityStampService securityStampService;
+    @Mock private ObjectProvider<RefreshTokenService> refreshTokenServiceProvider;
+    @Mock private RefreshTokenService refreshTokenService;
 
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
@@ -145,6 +155,72 @@ public class AuthenticationServiceTest {
 
     }
 
+    @Nested
+    @DisplayName("Logout Everywhere Tests")
+    class LogoutEverywhereTests {
+
+        @Test
+        @DisplayName("Success: Should rotate the security stamp of the current user")
+        void logoutEverywhere_ShouldRotateSecurityStamp() {
+            // GIVEN
+            when(currentUserProvider.getCurrentUser())
+                    .thenReturn(new AuthenticatedUser(7L, "kaan@test.com", Role.USER, "Kaan", "Test"));
+
+            // ACT
+            authenticationService.logoutEverywhere();
+
+            // VERIFY
+            verify(securityStampService).rotate(7L);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Refresh Token Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Success: Should issue new tokens without checking the password")
+        void refresh_ShouldIssueNewTokens() {
+            // GIVEN
+            when(refreshTokenServiceProvider.getIfAvailable()).thenReturn(refreshTokenService);
+            User user = User.builder().id(7L).email("kaan@test.com").securityStamp("stamp-a").build();
+            when(refreshTokenService.rotate("old-refresh"))
+                    .thenReturn(new RefreshTokenService.RefreshGrant(7L, "stamp-a", "family-1", "new-refresh"));
+            when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+            when(jwtService.generateToken(anyMap(), eq(user))).thenReturn("new-jwt");
+
+            // ACT
+            AuthenticationResponse response = authenticationService.refresh(new RefreshTokenRequest("old-refresh"));
+
+            // ASSERT & VERIFY
+            assertEquals("new-jwt", response.token());
+            assertEquals("new-refresh", response.refreshToken());
+            verify(jwtService).generateToken(argThat(claims -> "family-1".equals(claims.get(JwtService.CLAIM_REFRESH_FAMILY))), eq(user));
+            verifyNoInteractions(authenticationManager, passwordEncoder);
+        }
+
+        @Test
+        @DisplayName("Fail: Should revoke the token family after the user logged out everywhere")
+        void refresh_ShouldRevokeFamily_WhenSecurityStampChanged() {
+            // GIVEN
+            when(refreshTokenServiceProvider.getIfAvailable()).thenReturn(refreshTokenService);
+            User user = User.builder().id(7L).email("kaan@test.com").securityStamp("stamp-b").build();
+            when(refreshTokenService.rotate("old-refresh"))
+                    .thenReturn(new RefreshTokenService.RefreshGrant(7L, "stamp-a", "family-1", "new-refresh"));
+            when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+            // ACT & ASSERT
+            assertThrows(InvalidCredentialsException.class,
+                    () -> authenticationService.refresh(new RefreshTokenRequest("old-refresh")));
+
+            // VERIFY
+            verify(refreshTokenService).revokeFamily("family-1");
+            verify(jwtService, never()).generateToken(anyMap(), any());
+        }
+
+    }
+
     // --- Helper Methods ---
     private RegisterRequest createSampleRegisterRequest()
     {
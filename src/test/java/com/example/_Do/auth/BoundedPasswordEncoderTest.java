@@ -0,0 +1,104 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.password.BoundedPasswordEncoder;
+import com.example._Do.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BoundedPasswordEncoder}
+ * <p>
+ * Verifies that hashing runs off the calling thread and that requests beyond the pool
+ * and queue capacity are rejected immediately instead of waiting.
+ * </p>
+ */
+public class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Success: Should hash on a dedicated thread and return the result")
+    void encode_ShouldRunOnHashingThread() {
+        // GIVEN
+        encoder = new BoundedPasswordEncoder(new ThreadNameEncoder(), 1, 1, Duration.ofSeconds(5));
+
+        // ACT
+        String encoded = encoder.encode("secret");
+
+        // ASSERT
+        assertTrue(encoded.startsWith("password-hashing-"), "Hash should be computed on the executor");
+        assertTrue(encoder.matches("secret", encoded));
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject immediately when the pool and queue are full")
+    void encode_ShouldRejectWhenSaturated() throws Exception {
+        // GIVEN: one thread busy, one task queued
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1, Duration.ofSeconds(5));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        Thread.sleep(100);
+
+        // ACT & ASSERT
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("c"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Rejection should not wait for a slot");
+
+        // Queued work still completes once the thread frees up
+        release.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /** Encodes to the name of the thread doing the work. */
+    private static class ThreadNameEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.startsWith("password-hashing-");
+        }
+    }
+
+    /** Blocks every hash until released. */
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.JwtService;
+import com.example._Do.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the per-request JWT validation cost.
+ * <p>
+ * Compares the previous flow (three parses, each rebuilding the HMAC key), a single uncached parse,
+ * and a cache hit on the verified-claims cache.
+ * </p>
+ * <p>
+ * JMH forks a fresh JVM with the launching JVM's class path, so run it from a plain {@code java} process
+ * rather than {@code exec:java} (which runs inside Maven):
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main JwtServiceBenchmark"}, or {@link #main} from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService uncachedService;
+    private JwtService cachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedService = jwtService(0);
+        cachedService = jwtService(10_000);
+
+        User user = User.builder().email("bench@test.com").build();
+        token = cachedService.generateToken(Map.of(
+                JwtService.CLAIM_USER_ID, 1L,
+                JwtService.CLAIM_ROLE, "USER",
+                JwtService.CLAIM_SECURITY_STAMP, "stamp"), user);
+        cachedService.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean legacyThreeParses() {
+        // extractUsername, then isTokenValid (username + expiration), each rebuilding the key
+        String username = legacyParse(token).getSubject();
+        return legacyParse(token).getSubject().equals(username) && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncachedService.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims cachedParse() {
+        return cachedService.parseToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtService jwtService(int cacheEntries) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxEntries", cacheEntries);
+        return service;
+    }
+}
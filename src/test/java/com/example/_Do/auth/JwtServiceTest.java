@@ -0,0 +1,78 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.JwtService;
+import com.example._Do.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JwtService}
+ * <p>
+ * Verifies the single-parse validation API and its verified-claims cache: valid tokens are
+ * parsed once, tampered and expired tokens are always rejected.
+ * </p>
+ */
+public class JwtServiceTest {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxEntries", 100);
+        user = User.builder().email("kaan@test.com").build();
+    }
+
+    @Test
+    @DisplayName("Success: Should return the same verified claims for repeated requests")
+    void parseToken_ShouldServeRepeatedTokenFromCache() {
+        // GIVEN
+        String token = jwtService.generateToken(Map.of(JwtService.CLAIM_USER_ID, 1L), user);
+
+        // ACT
+        Claims first = jwtService.parseToken(token);
+        Claims second = jwtService.parseToken(token);
+
+        // ASSERT
+        assertEquals("kaan@test.com", first.getSubject());
+        assertSame(first, second, "Second parse should be a cache hit");
+        assertTrue(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject a token whose signature was tampered with")
+    void parseToken_ShouldRejectTamperedToken() {
+        // GIVEN
+        String token = jwtService.generateToken(user);
+        int i = token.lastIndexOf('.') + 5;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'a' ? 'b' : 'a') + token.substring(i + 1);
+
+        // ACT & ASSERT
+        assertThrows(JwtException.class, () -> jwtService.parseToken(tampered));
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject an expired token")
+    void parseToken_ShouldRejectExpiredToken() {
+        // GIVEN
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1_000L);
+        String token = jwtService.generateToken(user);
+
+        // ACT & ASSERT
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseToken(token));
+    }
+}
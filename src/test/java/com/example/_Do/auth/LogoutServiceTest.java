@@ -0,0 +1,95 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.JwtBlacklistService;
+import com.example._Do.auth.service.JwtService;
+import com.example._Do.auth.service.LogoutService;
+import com.example._Do.auth.service.RefreshTokenService;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.exception.InvalidCredentialsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link LogoutService}
+ * <p>
+ * Verifies that logging out blacklists the access token and revokes its refresh token family,
+ * so the session cannot be resumed through the refresh endpoint.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+public class LogoutServiceTest {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Mock private JwtBlacklistService jwtBlacklistService;
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+
+    /** Token families stored in Redis, by key. */
+    private final Map<String, String> families = new HashMap<>();
+
+    private JwtService jwtService;
+    private RefreshTokenService refreshTokenService;
+    private LogoutService logoutService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxEntries", 100);
+
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        doAnswer(invocation -> families.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        lenient().when(valueOperations.get(anyString())).thenAnswer(invocation -> families.get(invocation.<String>getArgument(0)));
+        lenient().when(stringRedisTemplate.delete(anyString())).thenAnswer(invocation -> families.remove(invocation.<String>getArgument(0)) != null);
+
+        refreshTokenService = new RefreshTokenService(stringRedisTemplate, 604_800_000L);
+        logoutService = new LogoutService(jwtBlacklistService, jwtService, refreshTokenService);
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject a refresh after the user logged out")
+    void logout_ShouldRevokeRefreshTokenFamily() {
+        // GIVEN: a login, i.e. a refresh token family and an access token naming it
+        RefreshTokenService.RefreshGrant login = refreshTokenService.issue(7L, "stamp-a");
+        String accessToken = jwtService.generateToken(
+                Map.of(JwtService.CLAIM_REFRESH_FAMILY, login.familyId()),
+                User.builder().email("kaan@test.com").build());
+        when(hashOperations.entries(anyString())).thenReturn(Map.of("family", login.familyId()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + accessToken);
+
+        // ACT
+        logoutService.logout(request, new MockHttpServletResponse(), null);
+
+        // ASSERT & VERIFY
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(login.refreshToken()));
+        verify(jwtBlacklistService).blacklistToken(eq(JwtService.revocationId(jwtService.parseToken(accessToken), accessToken)), any());
+        verify(hashOperations, never()).putIfAbsent(any(), any(), any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.interceptor.RateLimitPolicy;
+import com.example._Do.config.RateLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RateLimitPolicy}
+ * <p>
+ * Verifies that configured policies compile into bucket configurations and match
+ * only their routes and methods.
+ * </p>
+ */
+public class RateLimitPolicyTest {
+
+    @Test
+    @DisplayName("Success: Should compile every limit and report the tightest capacity")
+    void compile_ShouldBuildAllLimits() {
+        // GIVEN
+        RateLimitProperties.Policy policy = policy(List.of("/api/v1/tasks/ai-generate"), List.of(),
+                limit(5, Duration.ofMinutes(1)), limit(100, Duration.ofDays(1)));
+
+        // ACT
+        RateLimitPolicy compiled = RateLimitPolicy.compile(policy);
+
+        // ASSERT
+        assertEquals(2, compiled.configuration().getBandwidths().length);
+        assertEquals(5, compiled.limit());
+    }
+
+    @Test
+    @DisplayName("Success: Should match only the configured paths and methods")
+    void matches_ShouldRespectPatternsAndMethods() {
+        // GIVEN
+        RateLimitPolicy compiled = RateLimitPolicy.compile(policy(List.of("/api/v1/tasks", "/api/v1/tasks/slice"),
+                List.of("get"), limit(60, Duration.ofMinutes(1))));
+
+        // ACT & ASSERT
+        assertTrue(compiled.matches("GET", PathContainer.parsePath("/api/v1/tasks")));
+        assertTrue(compiled.matches("GET", PathContainer.parsePath("/api/v1/tasks/slice")));
+        assertFalse(compiled.matches("GET", PathContainer.parsePath("/api/v1/tasks/42")));
+        assertFalse(compiled.matches("POST", PathContainer.parsePath("/api/v1/tasks")));
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject a policy without limits at startup")
+    void compile_ShouldRejectPolicyWithoutLimits() {
+        // GIVEN
+        RateLimitProperties.Policy policy = policy(List.of("/api/**"), List.of());
+
+        // ACT & ASSERT
+        assertThrows(IllegalStateException.class, () -> RateLimitPolicy.compile(policy));
+    }
+
+    // --- Helper Methods ---
+    private static RateLimitProperties.Policy policy(List<String> patterns, List<String> methods, RateLimitProperties.Limit... limits) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName("test");
+        policy.setPatterns(patterns);
+        policy.setMethods(methods);
+        policy.setLimits(List.of(limits));
+        return policy;
+    }
+
+    private static RateLimitProperties.Limit limit(long capacity, Duration period) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPeriod(period);
+        return limit;
+    }
+}
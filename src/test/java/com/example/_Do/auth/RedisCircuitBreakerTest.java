@@ -0,0 +1,89 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RedisCircuitBreaker}
+ * <p>
+ * Verifies that the breaker opens after consecutive failures, short-circuits to the fallback
+ * while open, and closes again (running the recovery listeners) after a successful trial call.
+ * </p>
+ */
+public class RedisCircuitBreakerTest {
+
+    private RedisCircuitBreaker circuitBreaker;
+    private AtomicInteger redisCalls;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new RedisCircuitBreaker(2, Duration.ofMillis(50));
+        redisCalls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Success: Should stop calling Redis once the failure threshold is reached")
+    void execute_ShouldOpenAfterConsecutiveFailures() {
+        // ACT
+        String first = circuitBreaker.execute(this::failingCall, () -> "local");
+        String second = circuitBreaker.execute(this::failingCall, () -> "local");
+        String third = circuitBreaker.execute(this::failingCall, () -> "local");
+
+        // ASSERT
+        assertEquals("local", first);
+        assertEquals("local", second);
+        assertEquals("local", third);
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2, redisCalls.get(), "The open circuit should not call Redis");
+    }
+
+    @Test
+    @DisplayName("Success: Should close after a successful trial call and run recovery listeners")
+    void execute_ShouldCloseAndRecover_WhenTrialSucceeds() throws Exception {
+        // GIVEN
+        CountDownLatch recovered = new CountDownLatch(1);
+        circuitBreaker.onRecovery(recovered::countDown);
+        circuitBreaker.execute(this::failingCall, () -> "local");
+        circuitBreaker.execute(this::failingCall, () -> "local");
+        Thread.sleep(60);
+
+        // ACT
+        String result = circuitBreaker.execute(() -> "redis", () -> "local");
+
+        // ASSERT
+        assertEquals("redis", result);
+        assertTrue(circuitBreaker.isClosed());
+        assertTrue(recovered.await(1, TimeUnit.SECONDS), "Recovery listener should run after closing");
+    }
+
+    @Test
+    @DisplayName("Fail: Should reopen when the trial call fails")
+    void execute_ShouldReopen_WhenTrialFails() throws Exception {
+        // GIVEN
+        circuitBreaker.execute(this::failingCall, () -> "local");
+        circuitBreaker.execute(this::failingCall, () -> "local");
+        Thread.sleep(60);
+
+        // ACT
+        circuitBreaker.execute(this::failingCall, () -> "local");
+
+        // ASSERT
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(3, redisCalls.get());
+    }
+
+    private String failingCall() {
+        redisCalls.incrementAndGet();
+        throw new QueryTimeoutException("Redis command timed out");
+    }
+}
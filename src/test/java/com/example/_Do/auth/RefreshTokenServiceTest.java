@@ -0,0 +1,101 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.JwtService;
+import com.example._Do.auth.service.RefreshTokenService;
+import com.example._Do.user.exception.InvalidCredentialsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RefreshTokenService}
+ * <p>
+ * Verifies that refresh tokens rotate within their family, that a replayed token revokes
+ * the whole family, and that tokens of revoked families are rejected.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String TOKEN = "presented-refresh-token";
+    private static final String TOKEN_KEY = "refresh_token:" + JwtService.hashToken(TOKEN);
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        refreshTokenService = new RefreshTokenService(stringRedisTemplate, 604_800_000L);
+    }
+
+    @Test
+    @DisplayName("Success: Should exchange an unused token for a new one in the same family")
+    void rotate_ShouldIssueNewTokenInSameFamily() {
+        // GIVEN
+        when(hashOperations.entries(TOKEN_KEY)).thenReturn(Map.of("family", "family-1"));
+        when(valueOperations.get("refresh_family:family-1")).thenReturn("7:stamp-a");
+        when(hashOperations.putIfAbsent(eq(TOKEN_KEY), eq("usedAt"), anyString())).thenReturn(true);
+
+        // ACT
+        RefreshTokenService.RefreshGrant grant = refreshTokenService.rotate(TOKEN);
+
+        // ASSERT & VERIFY
+        assertEquals(7L, grant.userId());
+        assertEquals("stamp-a", grant.securityStamp());
+        assertEquals("family-1", grant.familyId());
+        assertNotEquals(TOKEN, grant.refreshToken());
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of("refresh_token:" + JwtService.hashToken(grant.refreshToken()))),
+                eq("family"), eq("family-1"), eq("604800000"));
+    }
+
+    @Test
+    @DisplayName("Fail: Should revoke the whole family when a used token is presented again")
+    void rotate_ShouldRevokeFamily_WhenTokenIsReused() {
+        // GIVEN
+        when(hashOperations.entries(TOKEN_KEY)).thenReturn(Map.of("family", "family-1", "usedAt", "2025-01-01T00:00:00Z"));
+        when(valueOperations.get("refresh_family:family-1")).thenReturn("7:stamp-a");
+        when(hashOperations.putIfAbsent(eq(TOKEN_KEY), eq("usedAt"), anyString())).thenReturn(false);
+
+        // ACT & ASSERT
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(TOKEN));
+
+        // VERIFY
+        verify(stringRedisTemplate).delete("refresh_family:family-1");
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject tokens of a revoked family")
+    void rotate_ShouldRejectToken_WhenFamilyIsRevoked() {
+        // GIVEN
+        when(hashOperations.entries(TOKEN_KEY)).thenReturn(Map.of("family", "family-1"));
+        when(valueOperations.get("refresh_family:family-1")).thenReturn(null);
+
+        // ACT & ASSERT
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(TOKEN));
+        verify(hashOperations, never()).putIfAbsent(any(), any(), any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.JwtService;
+import com.example._Do.auth.service.RevokedTokenBloomFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RevokedTokenBloomFilter}
+ * <p>
+ * A revoked token must never be reported as absent (that would skip the Redis check),
+ * and unrelated tokens should rarely be reported as present.
+ * </p>
+ */
+public class RevokedTokenBloomFilterTest {
+
+    private static final int ENTRIES = 10_000;
+
+    @Test
+    @DisplayName("Success: Should report every inserted token as possibly revoked")
+    void mightContain_ShouldHaveNoFalseNegatives() {
+        RevokedTokenBloomFilter filter = filledFilter();
+
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain(JwtService.hashToken("revoked-" + i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Success: Should keep the false positive rate near the configured target")
+    void mightContain_ShouldRespectFalsePositiveRate() {
+        RevokedTokenBloomFilter filter = filledFilter();
+
+        int falsePositives = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            if (filter.mightContain(JwtService.hashToken("active-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < ENTRIES * 0.02, "False positives: " + falsePositives);
+    }
+
+    private RevokedTokenBloomFilter filledFilter() {
+        RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put(JwtService.hashToken("revoked-" + i));
+        }
+        return filter;
+    }
+}
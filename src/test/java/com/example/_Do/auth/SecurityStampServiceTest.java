@@ -0,0 +1,108 @@
+package com.example._Do.auth;
+
+import com.example._Do.auth.service.SecurityStampService;
+import com.example._Do.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SecurityStampService}
+ * <p>
+ * Verifies that token stamps are validated from the local cache, that the user row is read
+ * only when needed, and that rotated stamps are rejected.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+public class SecurityStampServiceTest {
+
+    @Mock private UserRepository userRepository;
+
+    private SecurityStampService securityStampService;
+
+    @BeforeEach
+    void setUp() {
+        securityStampService = new SecurityStampService(userRepository, Duration.ofMinutes(1), 100,
+                Duration.ofMillis(200), 1, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Success: Should read the stamp once and serve later checks from the cache")
+    void isCurrent_ShouldCacheCurrentStamp() {
+        // GIVEN
+        when(userRepository.findSecurityStampById(1L)).thenReturn(Optional.of("stamp-a"));
+
+        // ACT
+        boolean first = securityStampService.isCurrent(1L, "stamp-a", Instant.now());
+        boolean second = securityStampService.isCurrent(1L, "stamp-a", Instant.now());
+
+        // ASSERT & VERIFY
+        assertTrue(first);
+        assertTrue(second);
+        verify(userRepository, times(1)).findSecurityStampById(1L);
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject an old token after the stamp was rotated")
+    void isCurrent_ShouldRejectRotatedStamp() {
+        // GIVEN
+        Instant issuedBeforeRotation = Instant.now().minusSeconds(60);
+        securityStampService.rotate(1L);
+
+        // ACT & ASSERT
+        assertFalse(securityStampService.isCurrent(1L, "stamp-a", issuedBeforeRotation));
+        verify(userRepository, never()).findSecurityStampById(any());
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject tokens of deleted users")
+    void isCurrent_ShouldRejectUnknownUser() {
+        // GIVEN
+        when(userRepository.findSecurityStampById(1L)).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertFalse(securityStampService.isCurrent(1L, "stamp-a", Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Success: Should trust the signed claims when the database is unavailable")
+    void isCurrent_ShouldTrustClaims_WhenDatabaseIsDown() {
+        // GIVEN
+        when(userRepository.findSecurityStampById(1L)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // ACT & ASSERT
+        assertTrue(securityStampService.isCurrent(1L, "stamp-a", Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Success: Should stop waiting for a slow database and skip it while the circuit is open")
+    void isCurrent_ShouldSkipDatabase_WhenLookupTimesOut() {
+        // GIVEN: the lookup blocks like a pool waiting for a connection
+        when(userRepository.findSecurityStampById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(Duration.ofSeconds(30));
+            return Optional.of("stamp-a");
+        });
+
+        // ACT
+        long start = System.nanoTime();
+        boolean first = securityStampService.isCurrent(1L, "stamp-a", Instant.now());
+        boolean second = securityStampService.isCurrent(1L, "stamp-a", Instant.now());
+
+        // ASSERT & VERIFY
+        assertTrue(first);
+        assertTrue(second);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        verify(userRepository, times(1)).findSecurityStampById(1L);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example._Do.db;
+
+import com.example._Do.group.entity.InvitationStatus;
+import com.example._Do.group.repository.GroupInvitationRepository;
+import com.example._Do.group.repository.GroupRepository;
+import com.example._Do.task.repository.TaskRepository;
+import com.example._Do.user.entity.User;
+import com.example._Do.user.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the hot repository queries are served by the indexes created by the Flyway migrations.
+ * <p>
+ * <strong>Goal:</strong> Catch query or migration changes that silently turn an indexed lookup into a full table scan.
+ * </p>
+ * <p>
+ * <strong>Technique:</strong> Runs the real migrations against a PostgreSQL container seeded with enough rows for
+ * the planner to weigh indexes against sequential scans on its own. Each repository method is called once, the SQL
+ * Hibernate issued is captured by a {@link StatementInspector} and its generic plan (the one PostgreSQL settles on
+ * for a prepared statement executed repeatedly) is inspected with {@code EXPLAIN (GENERIC_PLAN)}. An index only
+ * counts when its {@code Index Cond} constrains the tenant and seek columns: a full index walk with a Filter,
+ * e.g. over every user's tasks, does not.
+ * Skipped when Docker is not available.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example._Do.db.IndexUsageTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IndexUsageTest {
+
+    private static final int USERS = 2_000;
+    private static final int GROUPS = 500;
+    private static final int TASKS = 100_000;
+
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2024, 1, 15, 0, 0);
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private static boolean seeded;
+
+    private User user;
+    private List<Long> groupIds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupInvitationRepository invitationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+        user = userRepository.findById(42L).orElseThrow();
+        groupIds = groupRepository.findIdsByOwnerOrMember(42L);
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                query("TaskRepository.findAllVisibleToUser",
+                        test -> test.taskRepository.findAllVisibleToUser(42L, test.groupIds,
+                                PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))),
+                        index("idx_tasks_personal_created_at_id", "user_id"),
+                        index("idx_tasks_group_created_at_id", "group_id")),
+                query("TaskRepository.findAllVisibleToUserAfter",
+                        test -> test.taskRepository.findAllVisibleToUserAfter(42L, test.groupIds, CURSOR, 5_000L,
+                                PageRequest.ofSize(21)),
+                        index("idx_tasks_personal_created_at_id", "user_id"),
+                        index("idx_tasks_group_created_at_id", "group_id")),
+                query("TaskRepository.findVisibleByGroupId",
+                        test -> test.taskRepository.findVisibleByGroupId(7L, 42L, false,
+                                PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))),
+                        index("idx_tasks_group_created_at_id", "group_id")),
+                query("TaskRepository.findVisibleByGroupIdAfter",
+                        test -> test.taskRepository.findVisibleByGroupIdAfter(7L, 42L, false, CURSOR, 5_000L,
+                                PageRequest.ofSize(21)),
+                        index("idx_tasks_group_created_at_id", "group_id", "created_at")),
+                query("GroupRepository.findIdsByOwnerOrMember",
+                        test -> test.groupRepository.findIdsByOwnerOrMember(42L),
+                        index("idx_groups_owner_id", "owner_id"),
+                        index("idx_group_members_user_id", "user_id")),
+                query("GroupRepository.findSummariesByOwnerOrMember",
+                        test -> test.groupRepository.findSummariesByOwnerOrMember(42L),
+                        index("idx_group_members_user_id", "user_id")),
+                query("GroupInvitationRepository.findAllByInviteeAndStatus",
+                        test -> test.invitationRepository.findAllByInviteeAndStatus(test.user, InvitationStatus.PENDING),
+                        index("idx_group_invitations_invitee_status", "invitee_id", "status")),
+                query("GroupInvitationRepository.existsByGroupIdAndInviteeIdAndStatus",
+                        test -> test.invitationRepository.existsByGroupIdAndInviteeIdAndStatus(7L, 42L, InvitationStatus.PENDING),
+                        index("idx_group_invitations_invitee_status", "invitee_id", "status", "group_id")),
+                query("GroupInvitationRepository.findAllByGroupId",
+                        test -> test.invitationRepository.findAllByGroupId(7L),
+                        index("idx_group_invitations_group_id", "group_id"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    @DisplayName("Hot query should seek its indexes on the filtered columns")
+    void hotQuery_ShouldSeekExpectedIndexes(String query, Consumer<IndexUsageTest> call, List<IndexSeek> seeks) {
+        // ACT: run the repository method and keep the first statement it issued
+        SqlCapture.STATEMENTS.clear();
+        call.accept(this);
+        assertThat(SqlCapture.STATEMENTS).as("SQL issued by %s", query).isNotEmpty();
+        String sql = SqlCapture.STATEMENTS.get(0);
+
+        // ASSERT: each index is entered through its columns, not scanned whole with a Filter
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class);
+        for (IndexSeek seek : seeks) {
+            assertThat(indexConditions(plan, seek.index()))
+                    .as("Index Cond of %s in the plan of %s:%n%s%n%s", seek.index(), query, sql, String.join("\n", plan))
+                    .anySatisfy(condition -> assertThat(condition).contains(seek.columns()));
+        }
+    }
+
+    /**
+     * An index the plan must use, and the columns its {@code Index Cond} must constrain.
+     */
+    record IndexSeek(String index, String... columns) {
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares. Instantiated by Hibernate, hence the static buffer.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    // --- Helper Methods ---
+    private static Arguments query(String name, Consumer<IndexUsageTest> call, IndexSeek... seeks) {
+        return Arguments.of(name, call, List.of(seeks));
+    }
+
+    private static IndexSeek index(String name, String... columns) {
+        return new IndexSeek(name, columns);
+    }
+
+    /**
+     * Collects the {@code Index Cond} lines of every plan node that scans the given index.
+     * A node's details are the lines after it up to the next child node ({@code ->}).
+     */
+    private static List<String> indexConditions(List<String> plan, String index) {
+        Pattern node = Pattern.compile("\\b(on|using) " + Pattern.quote(index) + "\\b");
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (!node.matcher(plan.get(i)).find()) {
+                continue;
+            }
+            for (int j = i + 1; j < plan.size() && !plan.get(j).contains("->"); j++) {
+                String detail = plan.get(j).trim();
+                if (detail.startsWith("Index Cond:")) {
+                    conditions.add(detail);
+                }
+            }
+        }
+        return conditions;
+    }
+
+    /**
+     * Rewrites JDBC {@code ?} placeholders as {@code $1, $2, ...} so PostgreSQL can plan the statement unbound.
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    /**
+     * Spreads tasks, memberships and invitations over many users and groups, so that filtering on one user or
+     * group selects a small share of each table, then refreshes the planner statistics.
+     */
+    private void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (first_name, last_name, email, password, role, security_stamp)
+                SELECT 'Seed', 'User', 'user' || i || '@example.com', 'password', 'USER', gen_random_uuid()::text
+                FROM generate_series(1, ?) i
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO groups (name, description, owner_id, created_at)
+                SELECT 'Group ' || i, 'Seeded group', 1 + (i * 7) % ?, TIMESTAMP '2024-01-01'
+                FROM generate_series(1, ?) i
+                """, USERS, GROUPS);
+        jdbcTemplate.update("""
+                INSERT INTO group_members (group_id, user_id, joined_at)
+                SELECT 1 + i % ?, 1 + (i / ?) * 200 + (i % ?) % 200, TIMESTAMP '2024-01-01'
+                FROM generate_series(0, ? * 10 - 1) i
+                """, GROUPS, GROUPS, GROUPS, GROUPS);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, completed, user_id, created_at, group_id, is_private)
+                SELECT 'Task ' || i, i % 3 = 0, 1 + i % ?, TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute',
+                       CASE WHEN i % 2 = 0 THEN NULL ELSE 1 + (i / 2) % ? END, i % 5 = 0
+                FROM generate_series(1, ?) i
+                """, USERS, GROUPS, TASKS);
+        jdbcTemplate.update("""
+                INSERT INTO task_assignees (task_id, user_id)
+                SELECT i, 1 + (i * 31) % ? FROM generate_series(1, ?, 5) i
+                """, USERS, TASKS);
+        jdbcTemplate.update("""
+                INSERT INTO group_invitations (group_id, inviter_id, invitee_id, status, created_at)
+                SELECT 1 + i % ?, 1 + i % ?, 1 + (i * 17) % ?,
+                       (ARRAY['PENDING', 'ACCEPTED', 'DECLINED'])[1 + i % 3], TIMESTAMP '2024-01-01'
+                FROM generate_series(1, 20000) i
+                """, GROUPS, USERS, USERS);
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+}
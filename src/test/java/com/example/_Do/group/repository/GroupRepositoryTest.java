@@ -0,0 +1,149 @@
+package com.example._Do.group.repository;
+
+import com.example._Do.group.dto.GroupSummary;
+import com.example._Do.group.entity.Group;
+import com.example._Do.group.entity.GroupMember;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repository tests for {@link GroupRepository#findSummariesByOwnerOrMember(Long)} and the
+ * denormalized group counters.
+ * <p>
+ * <strong>Goal:</strong> Verify that the group list with owner name, member count and
+ * pending task count is produced by a single statement, whatever the number of groups,
+ * and that drifted counters are repaired from the actual data.
+ * </p>
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class GroupRepositoryTest {
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User member;
+    private Statistics statistics;
+
+    /**
+     * Creates three groups: two owned by {@code owner} (one with a member), and one owned by
+     * {@code member} that {@code owner} is not part of. The rows are written directly, so the
+     * counters are brought in line with the repair query.
+     */
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner@test.com", "Olivia"));
+        member = entityManager.persist(user("member@test.com", "Max"));
+
+        Group team = entityManager.persist(Group.builder().name("Team").owner(owner).build());
+        entityManager.persist(GroupMember.builder().group(team).user(member).build());
+        entityManager.persist(task("Open", team, false));
+        entityManager.persist(task("Also open", team, false));
+        entityManager.persist(task("Done", team, true));
+
+        entityManager.persist(Group.builder().name("Solo").owner(owner).build());
+        entityManager.persist(Group.builder().name("Foreign").owner(member).build());
+
+        entityManager.flush();
+        groupRepository.findIdsWithDriftedCounters().forEach(groupRepository::repairCounters);
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should return every group of the user with counters in one statement")
+    void findSummariesByOwnerOrMember_ShouldAggregateInOneStatement() {
+        List<GroupSummary> summaries = groupRepository.findSummariesByOwnerOrMember(owner.getId());
+
+        assertThat(summaries).extracting(GroupSummary::name).containsExactlyInAnyOrder("Team", "Solo");
+        GroupSummary team = summaries.stream().filter(s -> s.name().equals("Team")).findFirst().orElseThrow();
+        assertThat(team.ownerFirstName()).isEqualTo("Olivia");
+        assertThat(team.memberCount()).isEqualTo(1);
+        assertThat(team.pendingTaskCount()).isEqualTo(2L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should include groups the user is only a member of")
+    void findSummariesByOwnerOrMember_ShouldIncludeMemberships() {
+        List<GroupSummary> summaries = groupRepository.findSummariesByOwnerOrMember(member.getId());
+
+        assertThat(summaries).extracting(GroupSummary::name).containsExactlyInAnyOrder("Team", "Foreign");
+    }
+
+    @Test
+    @DisplayName("Should return the IDs of owned and joined groups")
+    void findIdsByOwnerOrMember_ShouldCombineOwnedAndJoinedGroups() {
+        List<Long> expected = groupRepository.findSummariesByOwnerOrMember(member.getId()).stream()
+                .map(GroupSummary::id)
+                .toList();
+
+        assertThat(groupRepository.findIdsByOwnerOrMember(member.getId())).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Should apply counter deltas and repair drifted counters")
+    void repairCounters_ShouldRestoreActualCounts() {
+        Long teamId = groupRepository.findSummariesByOwnerOrMember(owner.getId()).stream()
+                .filter(s -> s.name().equals("Team")).findFirst().orElseThrow().id();
+
+        groupRepository.adjustMemberCount(teamId, 5);
+        groupRepository.adjustPendingTaskCount(teamId, -1);
+        assertThat(entityManager.find(Group.class, teamId).getMemberCount()).isEqualTo(6);
+
+        entityManager.clear();
+        assertThat(groupRepository.findIdsWithDriftedCounters()).containsExactly(teamId);
+        assertThat(groupRepository.lockById(teamId)).contains(teamId);
+        assertThat(groupRepository.repairCounters(teamId)).isEqualTo(1);
+        assertThat(groupRepository.findIdsWithDriftedCounters()).isEmpty();
+
+        Group team = entityManager.find(Group.class, teamId);
+        assertThat(team.getMemberCount()).isEqualTo(1);
+        assertThat(team.getPendingTaskCount()).isEqualTo(2L);
+    }
+
+    // --- Helper Methods ---
+    private User user(String email, String firstName) {
+        return User.builder()
+                .firstName(firstName)
+                .lastName("User")
+                .email(email)
+                .password("secret")
+                .role(Role.USER)
+                .build();
+    }
+
+    private Task task(String title, Group group, boolean completed) {
+        return Task.builder()
+                .title(title)
+                .user(owner)
+                .group(group)
+                .completed(completed)
+                .priority(Priority.MEDIUM)
+                .assigneeIds(new HashSet<>())
+                .build();
+    }
+}
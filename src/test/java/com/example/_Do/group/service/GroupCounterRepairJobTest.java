@@ -0,0 +1,61 @@
+package com.example._Do.group.service;
+
+import com.example._Do.group.repository.GroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests for {@link GroupCounterRepairJob}.
+ * <p>
+ * Verifies that each drifted group is recounted in a transaction of its own, only after its row was locked.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupCounterRepairJobTest {
+
+    @Mock private GroupRepository groupRepository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private GroupCounterRepairJob job;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        job = new GroupCounterRepairJob(groupRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Success: Should lock each drifted group before recounting it")
+    void repairCounters_ShouldLockGroupBeforeRecount() {
+        // GIVEN
+        when(groupRepository.findIdsWithDriftedCounters()).thenReturn(List.of(3L, 5L));
+        when(groupRepository.lockById(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+        when(groupRepository.repairCounters(any())).thenReturn(1);
+
+        // ACT
+        job.repairCounters();
+
+        // VERIFY
+        InOrder order = inOrder(transactionTemplate, groupRepository);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(groupRepository).lockById(3L);
+        order.verify(groupRepository).repairCounters(3L);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(groupRepository).lockById(5L);
+        order.verify(groupRepository).repairCounters(5L);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example._Do.task.audio;
+
+import com.example._Do.exception.NoSpeechDetectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Tests for {@link AudioNormalizer}.
+ * <p>
+ * Uses generated 44.1 kHz stereo WAV clips to verify downmixing, resampling and silence trimming,
+ * and that silent or undecodable uploads are handled before any API call.
+ * </p>
+ */
+class AudioNormalizerTest {
+
+    private static final float SOURCE_RATE = 44_100f;
+
+    @TempDir
+    Path tempDir;
+
+    private AudioNormalizer audioNormalizer;
+
+    @BeforeEach
+    void setUp() {
+        audioNormalizer = new AudioNormalizer(16_000, -45, Duration.ofMillis(300), Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("Success: Should convert to 16 kHz mono and trim leading and trailing silence")
+    void normalize_ShouldDownmixResampleAndTrim() throws Exception {
+        // GIVEN: 1s silence, 1s tone, 1s silence
+        Path clip = stereoWav(1.0, 1.0, 1.0);
+
+        // ACT
+        NormalizedAudio normalized = audioNormalizer.normalize(clip);
+
+        // ASSERT
+        assertThat(normalized.converted()).isTrue();
+        assertThat(normalized.mimeType()).isEqualTo("audio/wav");
+        try (AudioInputStream result = AudioSystem.getAudioInputStream(normalized.file().toFile())) {
+            AudioFormat format = result.getFormat();
+            assertThat(format.getChannels()).isEqualTo(1);
+            assertThat(format.getSampleRate()).isEqualTo(16_000f);
+            assertThat(format.getSampleSizeInBits()).isEqualTo(16);
+            // 1s of speech plus 200ms padding on each side
+            double seconds = result.getFrameLength() / format.getFrameRate();
+            assertThat(seconds).isBetween(1.3, 1.5);
+        }
+        assertThat(Files.size(normalized.file())).isLessThan(Files.size(clip) / 5);
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject a near-silent clip")
+    void normalize_ShouldThrow_WhenClipIsSilent() throws Exception {
+        // GIVEN
+        Path clip = stereoWav(2.0, 0, 0);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> audioNormalizer.normalize(clip))
+                .isInstanceOf(NoSpeechDetectedException.class);
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject an empty upload")
+    void normalize_ShouldThrow_WhenFileIsEmpty() throws Exception {
+        // GIVEN
+        Path clip = Files.createFile(tempDir.resolve("empty.wav"));
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> audioNormalizer.normalize(clip))
+                .isInstanceOf(NoSpeechDetectedException.class);
+    }
+
+    @Test
+    @DisplayName("Success: Should pass compressed formats through with their detected MIME type")
+    void normalize_ShouldPassThroughCompressedAudio() throws Exception {
+        // GIVEN
+        Path clip = tempDir.resolve("note.ogg");
+        Files.write(clip, new byte[]{'O', 'g', 'g', 'S', 0, 2, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        // ACT
+        NormalizedAudio normalized = audioNormalizer.normalize(clip);
+
+        // ASSERT
+        assertThat(normalized.converted()).isFalse();
+        assertThat(normalized.file()).isEqualTo(clip);
+        assertThat(normalized.mimeType()).isEqualTo("audio/ogg");
+    }
+
+    // --- Helper Methods ---
+    private Path stereoWav(double leadingSilence, double tone, double trailingSilence) throws Exception {
+        int frames = (int) (SOURCE_RATE * (leadingSilence + tone + trailingSilence));
+        int toneStart = (int) (SOURCE_RATE * leadingSilence);
+        int toneEnd = toneStart + (int) (SOURCE_RATE * tone);
+        byte[] pcm = new byte[frames * 4];
+        for (int i = toneStart; i < toneEnd; i++) {
+            short sample = (short) (Math.sin(2 * Math.PI * 440 * i / SOURCE_RATE) * 8000);
+            for (int channel = 0; channel < 2; channel++) {
+                pcm[i * 4 + channel * 2] = (byte) sample;
+                pcm[i * 4 + channel * 2 + 1] = (byte) (sample >> 8);
+            }
+        }
+        AudioFormat format = new AudioFormat(SOURCE_RATE, 16, 2, true, false);
+        File file = tempDir.resolve("clip-" + System.nanoTime() + ".wav").toFile();
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, frames), AudioFileFormat.Type.WAVE, file);
+        return file.toPath();
+    }
+}
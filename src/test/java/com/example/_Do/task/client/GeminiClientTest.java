@@ -0,0 +1,133 @@
+package com.example._Do.task.client;
+
+import com.example._Do.common.resilience.CircuitBreaker;
+import com.example._Do.config.GeminiClientProperties;
+import com.example._Do.exception.AiServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Tests for {@link GeminiClient}.
+ * <p>
+ * Runs against local HTTP servers (a scripted one and {@link GeminiStubServer}) to verify retries on 503,
+ * that client errors are not retried or counted as outages, that the circuit opens and fails fast, and that the API key
+ * travels in a header on every attempt.
+ * </p>
+ */
+class GeminiClientTest {
+
+    private static final StreamingHttpOutputMessage.Body BODY =
+            out -> out.write("{\"contents\":[]}".getBytes(StandardCharsets.UTF_8));
+    private static final String API_KEY = "test-api-key";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> apiKeys = new CopyOnWriteArrayList<>();
+    private GeminiClientProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GeminiClientProperties();
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(10));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(50));
+        properties.getCircuitBreaker().setFailureThreshold(1);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Success: Should retry 503 responses and return the first successful answer")
+    void generateContent_ShouldRetryServiceUnavailable() throws Exception {
+        // GIVEN: two 503s, then 200
+        String uri = scriptedServer(503, 503, 200);
+        GeminiClient client = new GeminiClient(RestClient.create(), properties);
+
+        // ACT
+        String response = client.generateContent(uri, API_KEY, BODY);
+
+        // ASSERT
+        assertThat(response).isEqualTo("ok");
+        assertThat(requests).hasValue(3);
+        assertThat(apiKeys).containsExactly(API_KEY, API_KEY, API_KEY);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Fail: Should rethrow client errors without retrying or opening the circuit")
+    void generateContent_ShouldNotRetryClientErrors() throws Exception {
+        // GIVEN
+        String uri = scriptedServer(400);
+        GeminiClient client = new GeminiClient(RestClient.create(), properties);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> client.generateContent(uri, API_KEY, BODY))
+                .isInstanceOf(HttpClientErrorException.BadRequest.class);
+        assertThat(requests).hasValue(1);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Fail: Should open the circuit after exhausted retries and then fail fast")
+    void generateContent_ShouldFailFast_WhenCircuitOpen() throws Exception {
+        // GIVEN: a stub that always answers 503
+        GeminiStubServer stub = new GeminiStubServer(new ObjectMapper(), 0, Duration.ZERO, Duration.ZERO, 0, 1);
+        String uri = "http://localhost:" + stub.getPort() + "/v1beta/models/gemini-stub:generateContent";
+        GeminiClient client = new GeminiClient(RestClient.create(), properties);
+
+        try {
+            // ACT & ASSERT
+            assertThatThrownBy(() -> client.generateContent(uri, API_KEY, BODY))
+                    .isInstanceOf(AiServiceUnavailableException.class);
+            assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> client.generateContent(uri, API_KEY, BODY))
+                    .isInstanceOf(AiServiceUnavailableException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(50));
+        } finally {
+            stub.close();
+        }
+    }
+
+    // --- Helper Methods ---
+    private String scriptedServer(int... statuses) throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                apiKeys.add(exchange.getRequestHeaders().getFirst(GeminiClient.API_KEY_HEADER));
+                int status = statuses[Math.min(requests.getAndIncrement(), statuses.length - 1)];
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+        server.start();
+        return "http://localhost:" + server.getAddress().getPort() + "/generate";
+    }
+}
@@ -0,0 +1,127 @@
+package com.example._Do.task.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the Gemini {@code generateContent} endpoint, for load testing the AI pipeline offline
+ * and for {@link GeminiClientTest}.
+ * <p>
+ * Each request body is drained without buffering, then answered after a random latency between {@code min-latency}
+ * and {@code max-latency}: a share of {@code throttle-rate} gets 429 with {@code Retry-After}, a share of
+ * {@code failure-rate} gets 503, and the rest get a canned task.
+ * </p>
+ * <p>
+ * For a load test, start it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example._Do.task.client.GeminiStubServer}
+ * (settings as system properties, e.g. {@code -Dgoogle.gemini.stub.failure-rate=0.2}), then run the application
+ * with the {@code gemini-stub} profile, which points {@code google.gemini.url} at it.
+ * </p>
+ */
+@Slf4j
+public class GeminiStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Duration minLatency;
+    private final Duration maxLatency;
+    private final double throttleRate;
+    private final double failureRate;
+    private final byte[] response;
+
+    public GeminiStubServer(
+            ObjectMapper objectMapper,
+            int port,
+            Duration minLatency,
+            Duration maxLatency,
+            double throttleRate,
+            double failureRate
+    ) throws IOException {
+        this.minLatency = minLatency;
+        this.maxLatency = maxLatency;
+        this.throttleRate = throttleRate;
+        this.failureRate = failureRate;
+        this.response = cannedResponse(objectMapper);
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.start();
+        log.info("Gemini stub listening on port {} (latency {}-{} ms, 429 rate {}, 503 rate {})",
+                getPort(), minLatency.toMillis(), maxLatency.toMillis(), throttleRate, failureRate);
+    }
+
+    public static void main(String[] args) throws IOException {
+        GeminiStubServer stub = new GeminiStubServer(
+                new ObjectMapper(),
+                Integer.parseInt(System.getProperty("google.gemini.stub.port", "8089")),
+                Duration.parse(System.getProperty("google.gemini.stub.min-latency", "PT0.5S")),
+                Duration.parse(System.getProperty("google.gemini.stub.max-latency", "PT2S")),
+                Double.parseDouble(System.getProperty("google.gemini.stub.throttle-rate", "0.05")),
+                Double.parseDouble(System.getProperty("google.gemini.stub.failure-rate", "0.05"))
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+            Thread.sleep(ThreadLocalRandom.current().nextLong(minLatency.toMillis(), Math.max(minLatency.toMillis(), maxLatency.toMillis()) + 1));
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < throttleRate) {
+                exchange.getResponseHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                exchange.sendResponseHeaders(HttpStatus.TOO_MANY_REQUESTS.value(), -1);
+            } else if (roll < throttleRate + failureRate) {
+                exchange.sendResponseHeaders(HttpStatus.SERVICE_UNAVAILABLE.value(), -1);
+            } else {
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                exchange.sendResponseHeaders(HttpStatus.OK.value(), response.length);
+                exchange.getResponseBody().write(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A {@code generateContent} response whose text is a detected task, in the shape the prompt asks for.
+     */
+    private static byte[] cannedResponse(ObjectMapper objectMapper) throws IOException {
+        String task = objectMapper.writeValueAsString(Map.of(
+                "title", "Stub task",
+                "description", "Generated by the local Gemini stub",
+                "priority", "MEDIUM",
+                "dueDate", LocalDate.now().plusDays(1) + "T09:00:00",
+                "isTaskDetected", true
+        ));
+        return objectMapper.writeValueAsString(Map.of("candidates", List.of(
+                Map.of("content", Map.of("parts", List.of(Map.of("text", task))))
+        ))).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example._Do.task.controller;
+
+import com.example._Do.auth.dto.AuthenticationResponse;
+import com.example._Do.task.dto.AiJobResponse;
+import com.example._Do.task.dto.AiJobStatus;
+import com.example._Do.task.service.AiJobService;
+import com.example._Do.user.dto.RegisterRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the AI job event stream.
+ * The stream completes through an async dispatch, which has to pass the security filter chain as well.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("Task API Integration Tests")
+public class TaskControllerIT {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @MockitoBean private AiJobService aiJobService;
+
+    @Test
+    @DisplayName("Should stream AI job events until the job completes")
+    void aiJobEventsFlowTest() throws Exception {
+        String token = register();
+
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().name("status")
+                .data(AiJobResponse.builder().jobId("job-1").status(AiJobStatus.COMPLETED).build()));
+        emitter.complete();
+        when(aiJobService.subscribe("job-1")).thenReturn(emitter);
+
+        MvcResult stream = mockMvc.perform(get("/api/v1/tasks/ai-jobs/job-1/events")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:status")))
+                .andExpect(content().string(containsString("\"status\":\"COMPLETED\"")));
+    }
+
+    // --- Helper Methods ---
+
+    private String register() throws Exception {
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email("stream@user.com")
+                .password("test123")
+                .build();
+
+        String body = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, AuthenticationResponse.class).token();
+    }
+}
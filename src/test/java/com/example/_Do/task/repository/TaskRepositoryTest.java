@@ -0,0 +1,204 @@
+package com.example._Do.task.repository;
+
+import com.example._Do.group.entity.Group;
+import com.example._Do.group.entity.GroupMember;
+import com.example._Do.task.entity.Priority;
+import com.example._Do.task.entity.Task;
+import com.example._Do.task.pagination.TaskCursor;
+import com.example._Do.user.entity.Role;
+import com.example._Do.user.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repository tests for the visibility-aware task queries of {@link TaskRepository}.
+ * <p>
+ * <strong>Goal:</strong> Verify that privacy rules are evaluated by the database and that
+ * only the requested page of tasks is loaded into the persistence context.
+ * </p>
+ * <p>
+ * <strong>Technique:</strong> Uses Hibernate {@link Statistics} to count the Task entities
+ * materialized by each query.
+ * </p>
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TaskRepositoryTest {
+
+    private static final int PUBLIC_TASKS = 30;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User member;
+    private Group group;
+    private Statistics statistics;
+
+    /**
+     * Creates a group with one owner and one member, 30 public tasks and a few private tasks
+     * with different visibility for the member.
+     */
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner@test.com"));
+        member = entityManager.persist(user("member@test.com"));
+
+        group = entityManager.persist(Group.builder().name("Team").owner(owner).build());
+        entityManager.persist(GroupMember.builder().group(group).user(member).build());
+
+        for (int i = 0; i < PUBLIC_TASKS; i++) {
+            entityManager.persist(task("Public " + i, owner, false, Set.of()));
+        }
+        entityManager.persist(task("Private of owner", owner, true, Set.of()));
+        entityManager.persist(task("Private of member", member, true, Set.of()));
+        entityManager.persist(task("Private assigned to member", owner, true, Set.of(member.getId())));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should load no more than one page of group tasks")
+    void findVisibleByGroupId_ShouldLoadOnlyOnePage() {
+        Pageable pageable = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Page<Task> page = taskRepository.findVisibleByGroupId(group.getId(), member.getId(), false, pageable);
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(PUBLIC_TASKS + 2);
+        assertThat(statistics.getEntityStatistics(Task.class.getName()).getLoadCount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should map a page of tasks with a fixed number of statements")
+    void findVisibleByGroupId_ShouldFetchCreatorsAndBatchAssignees() {
+        Pageable pageable = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Page<Task> page = taskRepository.findVisibleByGroupId(group.getId(), member.getId(), false, pageable);
+        page.getContent().forEach(task -> {
+            task.getUser().getFirstName();
+            task.getAssigneeIds().size();
+        });
+
+        // Page query (with creators fetched), count query, one batched load of the assignee IDs
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should hide private tasks of others from a regular member")
+    void findVisibleByGroupId_ShouldApplyPrivacyRulesForMember() {
+        Page<Task> page = taskRepository.findVisibleByGroupId(
+                group.getId(), member.getId(), false, PageRequest.of(0, 100));
+
+        assertThat(page.getContent())
+                .extracting(Task::getTitle)
+                .contains("Private of member", "Private assigned to member")
+                .doesNotContain("Private of owner");
+    }
+
+    @Test
+    @DisplayName("Should show every group task to the group owner")
+    void findVisibleByGroupId_ShouldShowEverythingToOwner() {
+        Page<Task> page = taskRepository.findVisibleByGroupId(
+                group.getId(), owner.getId(), true, PageRequest.of(0, 100));
+
+        assertThat(page.getTotalElements()).isEqualTo(PUBLIC_TASKS + 3);
+    }
+
+    @Test
+    @DisplayName("Should include personal and visible group tasks in the user's feed")
+    void findAllVisibleToUser_ShouldCombinePersonalAndGroupTasks() {
+        entityManager.persist(Task.builder().title("Personal").user(entityManager.find(User.class, member.getId()))
+                .priority(Priority.LOW).assigneeIds(new HashSet<>()).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Task> page = taskRepository.findAllVisibleToUser(member.getId(), List.of(group.getId()), PageRequest.of(0, 100));
+
+        assertThat(page.getTotalElements()).isEqualTo(PUBLIC_TASKS + 3);
+        assertThat(page.getContent())
+                .extracting(Task::getTitle)
+                .contains("Personal")
+                .doesNotContain("Private of owner");
+    }
+
+    @Test
+    @DisplayName("Should only return personal tasks to a user without groups")
+    void findAllVisibleToUser_ShouldReturnPersonalTasks_WhenUserHasNoGroups() {
+        entityManager.persist(Task.builder().title("Personal").user(entityManager.find(User.class, member.getId()))
+                .priority(Priority.LOW).assigneeIds(new HashSet<>()).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Task> page = taskRepository.findAllVisibleToUser(member.getId(), List.of(), PageRequest.of(0, 100));
+
+        assertThat(page.getContent()).extracting(Task::getTitle).containsExactly("Personal");
+    }
+
+    @Test
+    @DisplayName("Should walk a group with keyset slices without gaps or duplicates")
+    void findVisibleByGroupIdAfter_ShouldScrollThroughAllVisibleTasks() {
+        List<Long> seen = new ArrayList<>();
+        TaskCursor cursor = TaskCursor.START;
+        List<Task> slice;
+        do {
+            slice = taskRepository.findVisibleByGroupIdAfter(group.getId(), member.getId(), false,
+                    cursor.createdAt(), cursor.id(), PageRequest.ofSize(7));
+            slice.forEach(task -> seen.add(task.getId()));
+            if (!slice.isEmpty()) {
+                cursor = TaskCursor.decode(TaskCursor.after(slice.get(slice.size() - 1)).encode());
+            }
+        } while (slice.size() == 7);
+
+        assertThat(seen).hasSize(PUBLIC_TASKS + 2).doesNotHaveDuplicates();
+    }
+
+    // --- Helper Methods ---
+    private User user(String email) {
+        return User.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .password("secret")
+                .role(Role.USER)
+                .build();
+    }
+
+    private Task task(String title, User creator, boolean isPrivate, Set<Long> assigneeIds) {
+        Task task = Task.builder()
+                .title(title)
+                .user(creator)
+                .group(group)
+                .priority(Priority.MEDIUM)
+                .assigneeIds(new HashSet<>(assigneeIds))
+                .build();
+        task.setPrivate(isPrivate);
+        return task;
+    }
+}
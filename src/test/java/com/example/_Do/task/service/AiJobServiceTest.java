@@ -0,0 +1,202 @@
+package com.example._Do.task.service;
+
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.auth.service.CurrentUserProvider;
+import com.example._Do.exception.AiJobRejectedException;
+import com.example._Do.exception.AudioTooLargeException;
+import com.example._Do.exception.RateLimitExceededException;
+import com.example._Do.task.dto.AiJobResponse;
+import com.example._Do.task.dto.AiJobStatus;
+import com.example._Do.user.entity.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests for {@link AiJobService}.
+ * <p>
+ * Verifies that voice notes are queued and processed in the background, that the per-user limit
+ * on active jobs is enforced and its slots released, that expired jobs are not recreated, that users
+ * cannot read jobs of other users, and that event streams are capped and do not hold each other up.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class AiJobServiceTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(7L, "user@test.com", Role.USER, "Test", "User");
+
+    @Mock private AiTaskService aiTaskService;
+    @Mock private CurrentUserProvider currentUserProvider;
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ZSetOperations<String, String> zSetOperations;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+
+    private AiJobService aiJobService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        // Job hash writes succeed unless a test says otherwise
+        lenient().when(stringRedisTemplate.execute(any(RedisScript.class), argThat(keys -> isJobKey(keys)), any(Object[].class)))
+                .thenReturn(1L);
+        when(currentUserProvider.getCurrentUser()).thenReturn(USER);
+        aiJobService = new AiJobService(aiTaskService, currentUserProvider, stringRedisTemplate, new ObjectMapper(),
+                1, 1, 2, Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofMillis(100), 2, DataSize.ofKilobytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiJobService.destroy();
+    }
+
+    @Test
+    @DisplayName("Success: Should queue the voice note and process it in the background")
+    void submit_ShouldQueueJob() {
+        // GIVEN
+        givenSlot(1L);
+        MockMultipartFile file = new MockMultipartFile("file", "note.wav", "audio/wav", new byte[]{1, 2, 3});
+
+        // ACT
+        AiJobResponse response = aiJobService.submit(file);
+
+        // ASSERT & VERIFY: the job hash is created with its TTL, processed, and the slot released
+        assertThat(response.getStatus()).isEqualTo(AiJobStatus.PENDING);
+        assertThat(response.getJobId()).isNotBlank();
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("ai_job:" + response.getJobId())),
+                eq("3600000"), eq("userId"), eq("7"), eq("status"), eq("PENDING"), eq("createdAt"), anyString());
+        verify(aiTaskService, timeout(1000)).processVoiceTask(any(Path.class));
+        verify(zSetOperations, timeout(1000)).remove("ai_jobs:active:7", response.getJobId());
+    }
+
+    @Test
+    @DisplayName("Success: Should skip a job whose state expired before a worker picked it up")
+    void run_ShouldNotRecreateExpiredJob() {
+        // GIVEN: the job hash is gone when the worker marks it as running
+        givenSlot(1L);
+        when(stringRedisTemplate.execute(any(RedisScript.class), argThat(keys -> isJobKey(keys)),
+                eq("0"), eq("status"), eq("RUNNING"))).thenReturn(0L);
+        MockMultipartFile file = new MockMultipartFile("file", "note.wav", "audio/wav", new byte[]{1, 2, 3});
+
+        // ACT
+        AiJobResponse response = aiJobService.submit(file);
+
+        // ASSERT & VERIFY
+        verify(zSetOperations, timeout(1000)).remove("ai_jobs:active:7", response.getJobId());
+        verifyNoInteractions(aiTaskService);
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject a voice note when the user already has the maximum active jobs")
+    void submit_ShouldThrow_WhenUserLimitReached() {
+        // GIVEN
+        givenSlot(0L);
+        MockMultipartFile file = new MockMultipartFile("file", "note.wav", "audio/wav", new byte[]{1, 2, 3});
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> aiJobService.submit(file))
+                .isInstanceOf(RateLimitExceededException.class);
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), argThat(keys -> isJobKey(keys)), any(Object[].class));
+        verifyNoInteractions(zSetOperations);
+        verifyNoInteractions(aiTaskService);
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject audio above the size cap and release the user's slot")
+    void submit_ShouldThrow_WhenAudioTooLarge() {
+        // GIVEN
+        givenSlot(1L);
+        MockMultipartFile file = new MockMultipartFile("file", "note.wav", "audio/wav", new byte[2048]);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> aiJobService.submit(file))
+                .isInstanceOf(AudioTooLargeException.class);
+        verify(zSetOperations).remove(eq("ai_jobs:active:7"), anyString());
+        verifyNoInteractions(aiTaskService);
+    }
+
+    @Test
+    @DisplayName("Fail: Should report a job of another user as not found")
+    void getJob_ShouldThrow_WhenJobBelongsToAnotherUser() {
+        // GIVEN
+        when(hashOperations.entries("ai_job:job-1")).thenReturn(Map.of("userId", "8", "status", "COMPLETED"));
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> aiJobService.getJob("job-1"))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Success: Should keep streaming other jobs while one stream is stuck")
+    void subscribe_ShouldNotStallOtherStreams_WhenOneStreamBlocks() {
+        // GIVEN: job-1 blocks on every poll after the ownership check
+        CountDownLatch release = new CountDownLatch(1);
+        when(hashOperations.entries("ai_job:job-1"))
+                .thenReturn(Map.of("userId", "7", "status", "RUNNING"))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return Map.of("userId", "7", "status", "RUNNING");
+                });
+        when(hashOperations.entries("ai_job:job-2")).thenReturn(Map.of("userId", "7", "status", "RUNNING"));
+
+        try {
+            // ACT
+            aiJobService.subscribe("job-1");
+            aiJobService.subscribe("job-2");
+
+            // VERIFY: job-2 keeps being polled, and job-1 polls are not stacked up behind the stuck one
+            verify(hashOperations, timeout(1000).atLeast(4)).entries("ai_job:job-2");
+            verify(hashOperations, times(2)).entries("ai_job:job-1");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Fail: Should reject a stream above the maximum open streams")
+    void subscribe_ShouldThrow_WhenMaxSubscriptionsReached() {
+        // GIVEN
+        when(hashOperations.entries(anyString())).thenReturn(Map.of("userId", "7", "status", "RUNNING"));
+        aiJobService.subscribe("job-1");
+        aiJobService.subscribe("job-2");
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> aiJobService.subscribe("job-3"))
+                .isInstanceOf(AiJobRejectedException.class);
+    }
+
+    // --- Helper Methods ---
+    private void givenSlot(long acquired) {
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("ai_jobs:active:7")), any(Object[].class)))
+                .thenReturn(acquired);
+    }
+
+    private static boolean isJobKey(List<?> keys) {
+        return keys != null && keys.size() == 1 && keys.get(0).toString().startsWith("ai_job:");
+    }
+}
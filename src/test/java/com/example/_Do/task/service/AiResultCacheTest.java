@@ -0,0 +1,131 @@
+package com.example._Do.task.service;
+
+import com.example._Do.config.GeminiClientProperties;
+import com.example._Do.task.dto.AiTaskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests for {@link AiResultCache}.
+ * <p>
+ * Verifies that cached results skip the Gemini call, that fresh results are stored,
+ * and that concurrent loads of the same key share a single call.
+ * </p>
+ */
+@ExtendWith(MockitoExtension.class)
+class AiResultCacheTest {
+
+    private static final String KEY = "1:2026-01-01:abc";
+    private static final AiTaskResponse RESULT = new AiTaskResponse("Buy milk", "From the store", null, null, true);
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private AiResultCache aiResultCache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        aiResultCache = new AiResultCache(stringRedisTemplate, objectMapper,
+                Duration.ofHours(1), new GeminiClientProperties(), Duration.ofSeconds(15), Duration.ofMillis(10));
+    }
+
+    @Test
+    @DisplayName("Success: Should return the cached result without calling the loader")
+    void get_ShouldReturnCachedResult() throws Exception {
+        // GIVEN
+        when(valueOperations.get("ai_result:" + KEY)).thenReturn(objectMapper.writeValueAsString(RESULT));
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        AiTaskResponse result = aiResultCache.get(KEY, () -> {
+            calls.incrementAndGet();
+            return RESULT;
+        });
+
+        // ASSERT
+        assertThat(result).isEqualTo(RESULT);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Success: Should load once and store the result for concurrent callers")
+    void get_ShouldCollapseConcurrentLoads() throws Exception {
+        // GIVEN
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch secondMissed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // The second cache read is the second caller missing the cache, right before it joins the in-flight load
+        when(valueOperations.get("ai_result:" + KEY))
+                .thenReturn(null)
+                .thenAnswer(invocation -> {
+                    secondMissed.countDown();
+                    return null;
+                });
+
+        // ACT
+        CompletableFuture<AiTaskResponse> first = CompletableFuture.supplyAsync(() -> aiResultCache.get(KEY, () -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return RESULT;
+        }));
+        assertThat(loading.await(1, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<AiTaskResponse> second = CompletableFuture.supplyAsync(() -> aiResultCache.get(KEY, () -> {
+            calls.incrementAndGet();
+            return RESULT;
+        }));
+        assertThat(secondMissed.await(1, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        // ASSERT & VERIFY
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo(RESULT);
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo(RESULT);
+        assertThat(calls).hasValue(1);
+        verify(valueOperations).set(eq("ai_result:" + KEY), anyString(), eq(Duration.ofHours(1)));
+    }
+
+    @Test
+    @DisplayName("Success: Should hold the load lock for the slowest possible Gemini call")
+    void get_ShouldLockForWorstCaseGeminiCall() {
+        // GIVEN: 5s bulkhead wait + 3 attempts x (5s connect + 60s read) + 2 backoffs x 8s, plus the 15s margin
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        // ACT
+        aiResultCache.get(KEY, () -> RESULT);
+
+        // VERIFY
+        verify(valueOperations).setIfAbsent(eq("ai_result_lock:" + KEY), anyString(), eq(Duration.ofSeconds(231)));
+    }
+
+    // --- Helper Methods ---
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
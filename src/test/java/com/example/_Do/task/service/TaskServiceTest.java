@@ -1,5 +1,10 @@
 package com.example._Do.task.service;
 
+import com.example._Do.auth.principal.AuthenticatedUser;
+import com.example._Do.auth.service.CurrentUserProvider;
+import com.example._Do.group.entity.Group;
+import com.example._Do.group.repository.GroupMemberRepository;
+import com.example._Do.group.repository.GroupRepository;
 import com.example._Do.task.dto.TaskRequest;
 import com.example._Do.task.dto.TaskResponse;
 import com.example._Do.task.entity.Priority;
@@ -9,7 +14,6 @@ import com.example._Do.task.repository.TaskRepository;
 import com.example._Do.user.entity.User;
 import com.example._Do.user.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,16 +21,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.Mockito.*;
 
 /**
@@ -49,6 +58,10 @@ class TaskServiceTest {
     private TaskMapper taskMapper;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private GroupRepository groupRepository;
+    @Mock
+    private GroupMemberRepository groupMemberRepository;
 
     // --- SYSTEM UNDER TEST ---
     @InjectMocks
@@ -56,9 +69,7 @@ class TaskServiceTest {
 
     // --- SECURITY MOCKS ---
     @Mock
-    private SecurityContext securityContext;
-    @Mock
-    private Authentication authentication;
+    private CurrentUserProvider currentUserProvider;
 
     // --- TEST DATA FIXTURES ---
     private User mockUser;
@@ -67,7 +78,7 @@ class TaskServiceTest {
 
     /**
      * Setup method executed before each test.
-     * Initializes common objects and mocks the Security Context to simulate a logged-in user.
+     * Initializes common objects; each test stubs {@link CurrentUserProvider} to simulate a logged-in user.
      */
     @BeforeEach
     void setUp() {
@@ -94,19 +105,6 @@ class TaskServiceTest {
                 .priority(Priority.MEDIUM)
                 .dueDate(LocalDateTime.now().plusDays(1))
                 .build();
-
-        // 4. Mock the Security Context (Simulate Authentication)
-        // This is crucial because TaskService relies on SecurityContextHolder to identify the user.
-        SecurityContextHolder.setContext(securityContext);
-    }
-
-    /**
-     * Teardown method executed after each test.
-     * Clears the SecurityContext to prevent state leakage between tests.
-     */
-    @AfterEach
-    void tearDown() {
-        SecurityContextHolder.clearContext();
     }
 
     /**
@@ -121,12 +119,9 @@ class TaskServiceTest {
     @DisplayName("Should create task successfully when valid request is provided")
     void createTask_WhenValidRequest_ShouldSaveAndReturnResponse() {
         // --- GIVEN ---
-        // Mock Security behavior
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("test@user.com");
-
-        // Mock User retrieval
-        when(userRepository.findByEmail("test@user.com")).thenReturn(Optional.of(mockUser));
+        // Mock the authenticated principal and the lazy reference used as task creator
+        when(currentUserProvider.getCurrentUser()).thenReturn(AuthenticatedUser.from(mockUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(mockUser);
 
         // Mock Mapper: DTO -> Entity
         when(taskMapper.toEntity(mockRequest)).thenReturn(mockTask);
@@ -161,12 +156,10 @@ class TaskServiceTest {
     @DisplayName("Should get task by ID when user owns the task")
     void getTaskById_WhenUserOwnsTask_ShouldReturnResponse() {
         // --- GIVEN ---
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("test@user.com");
-        when(userRepository.findByEmail("test@user.com")).thenReturn(Optional.of(mockUser));
+        when(currentUserProvider.getCurrentUser()).thenReturn(AuthenticatedUser.from(mockUser));
 
         // Mock Repository finding the task
-        when(taskRepository.findById(100L)).thenReturn(Optional.of(mockTask));
+        when(taskRepository.findDetailedById(100L)).thenReturn(Optional.of(mockTask));
 
         TaskResponse expectedResponse = TaskResponse.builder().id(100L).build();
         when(taskMapper.toResponse(mockTask)).thenReturn(expectedResponse);
@@ -198,12 +191,10 @@ class TaskServiceTest {
         mockTask.setUser(otherUser);
 
         // 3. Current logged-in user is still "mockUser" (ID: 1)
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("test@user.com");
-        when(userRepository.findByEmail("test@user.com")).thenReturn(Optional.of(mockUser));
+        when(currentUserProvider.getCurrentUser()).thenReturn(AuthenticatedUser.from(mockUser));
 
         // 4. Repository finds the task (it exists physically in DB)
-        when(taskRepository.findById(100L)).thenReturn(Optional.of(mockTask));
+        when(taskRepository.findDetailedById(100L)).thenReturn(Optional.of(mockTask));
 
         // --- WHEN & THEN ---
         // Verify that the service throws an exception due to ownership mismatch
@@ -214,4 +205,103 @@ class TaskServiceTest {
         // Verification: Ensure we never tried to map the response
         verify(taskMapper, never()).toResponse(any());
     }
-}
\ No newline at end of file
+
+    /**
+     * Scenario: Retrieving the task feed of the authenticated user.
+     * <p>
+     * Given: The repository returns one page of visible tasks.<br>
+     * When: getAllTasks is called.<br>
+     * Then: Exactly one paged repository query is issued and its page metadata is preserved.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should load the task feed with a single paged repository query")
+    void getAllTasks_ShouldDelegatePagingToRepository() {
+        // --- GIVEN ---
+        when(currentUserProvider.getCurrentUser()).thenReturn(AuthenticatedUser.from(mockUser));
+
+        Pageable pageable = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        when(groupRepository.findIdsByOwnerOrMember(1L)).thenReturn(List.of(7L));
+        when(taskRepository.findAllVisibleToUser(1L, List.of(7L), pageable))
+                .thenReturn(new PageImpl<>(List.of(mockTask), pageable, 21));
+        when(taskMapper.toResponse(mockTask)).thenReturn(TaskResponse.builder().id(100L).build());
+
+        // --- WHEN ---
+        Page<TaskResponse> page = taskService.getAllTasks(pageable);
+
+        // --- THEN ---
+        assertThat(page.getContent()).extracting(TaskResponse::getId).containsExactly(100L);
+        assertThat(page.getTotalElements()).isEqualTo(21);
+        verify(taskRepository, times(1)).findAllVisibleToUser(1L, List.of(7L), pageable);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    /**
+     * Scenario: Mapping a page whose tasks have assignees.
+     * <p>
+     * Given: Two tasks on the same page with overlapping assignees.<br>
+     * When: getAllTasks is called.<br>
+     * Then: The assignee names of the whole page are resolved with a single user query.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should resolve assignee names of a whole page with one query")
+    void getAllTasks_ShouldResolveAssigneeNamesOncePerPage() {
+        // --- GIVEN ---
+        when(currentUserProvider.getCurrentUser()).thenReturn(AuthenticatedUser.from(mockUser));
+
+        User alice = User.builder().id(2L).firstName("Alice").lastName("Smith").build();
+        User bob = User.builder().id(3L).firstName("Bob").lastName("Jones").build();
+        Task first = Task.builder().id(101L).title("First").user(mockUser).assigneeIds(new HashSet<>(List.of(2L))).build();
+        Task second = Task.builder().id(102L).title("Second").user(mockUser).assigneeIds(new HashSet<>(List.of(2L, 3L))).build();
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(groupRepository.findIdsByOwnerOrMember(1L)).thenReturn(List.of());
+        when(taskRepository.findAllVisibleToUser(1L, List.of(), pageable))
+                .thenReturn(new PageImpl<>(List.of(first, second), pageable, 2));
+        when(taskMapper.toResponse(any(Task.class))).thenAnswer(inv -> TaskResponse.builder()
+                .id(inv.<Task>getArgument(0).getId()).build());
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(alice, bob));
+
+        // --- WHEN ---
+        Page<TaskResponse> page = taskService.getAllTasks(pageable);
+
+        // --- THEN ---
+        assertThat(page.getContent().get(0).getAssigneeNames()).containsExactly("Alice Smith");
+        assertThat(page.getContent().get(1).getAssigneeNames()).containsExactlyInAnyOrder("Alice Smith", "Bob Jones");
+        verify(userRepository, times(1)).findAllById(anyIterable());
+    }
+
+    /**
+     * Scenario: The owner of a group completes one of its tasks.
+     * <p>
+     * Given: A pending group task and a request marking it completed.<br>
+     * When: updateTask is called.<br>
+     * Then: The pending task counter of the group is decremented once.
+     * </p>
+     */
+    @Test
+    @DisplayName("Should decrement the group's pending counter when a group task is completed")
+    void updateTask_WhenGroupTaskCompleted_ShouldDecrementPendingCounter() {
+        // --- GIVEN ---
+        when(currentUserProvider.getCurrentUser()).thenReturn(AuthenticatedUser.from(mockUser));
+
+        Group group = Group.builder().id(7L).name("Team").owner(mockUser).build();
+        mockTask.setGroup(group);
+        TaskRequest completeRequest = TaskRequest.builder().title("Test Task").completed(true).build();
+
+        when(taskRepository.findDetailedById(100L)).thenReturn(Optional.of(mockTask));
+        doAnswer(inv -> {
+            inv.<Task>getArgument(1).setCompleted(true);
+            return null;
+        }).when(taskMapper).updateEntityFromRequest(completeRequest, mockTask);
+        when(taskRepository.save(mockTask)).thenReturn(mockTask);
+        when(taskMapper.toResponse(mockTask)).thenReturn(TaskResponse.builder().id(100L).build());
+
+        // --- WHEN ---
+        taskService.updateTask(100L, completeRequest);
+
+        // --- THEN ---
+        verify(groupRepository, times(1)).adjustPendingTaskCount(7L, -1);
+    }
+}